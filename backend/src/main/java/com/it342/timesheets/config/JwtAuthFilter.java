@@ -1,6 +1,8 @@
 package com.it342.timesheets.config;
 
 import com.it342.timesheets.security.JwtUtil;
+import com.it342.timesheets.security.TokenRevocationIndex;
+import com.it342.timesheets.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +21,11 @@ import java.util.Collections;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationIndex revocationIndex;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, TokenRevocationIndex revocationIndex) {
         this.jwtUtil = jwtUtil;
+        this.revocationIndex = revocationIndex;
     }
 
     @Override
@@ -31,10 +35,10 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                Integer userId = jwtUtil.getUserIdFromToken(token);
+            VerifiedToken verified = jwtUtil.verifyToken(token);
+            if (verified != null && !revocationIndex.isRevoked(verified)) {
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userId,
+                        verified.userId(),
                         null,
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
                 );
@@ -1,5 +1,6 @@
 package com.it342.timesheets.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -27,6 +28,7 @@ public class SecurityConfig {
             .sessionManagement(session ->
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/employers/search").permitAll()
                 .requestMatchers("/api/auth/logout", "/api/user/**").authenticated()
                 .anyRequest().authenticated()
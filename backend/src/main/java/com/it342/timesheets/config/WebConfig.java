@@ -1,12 +1,26 @@
 package com.it342.timesheets.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final long asyncTimeoutMs;
+
+    public WebConfig(@Value("${app.web.async-timeout-ms:3600000}") long asyncTimeoutMs) {
+        this.asyncTimeoutMs = asyncTimeoutMs;
+    }
+
+    // Streamed exports can take far longer than the servlet container's default.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
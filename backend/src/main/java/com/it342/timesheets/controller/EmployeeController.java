@@ -0,0 +1,31 @@
+package com.it342.timesheets.controller;
+
+import com.it342.timesheets.dto.EmployeeImportRequest;
+import com.it342.timesheets.dto.EmployeeImportResponse;
+import com.it342.timesheets.service.EmployeeImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeController {
+
+    private final EmployeeImportService employeeImportService;
+
+    public EmployeeController(EmployeeImportService employeeImportService) {
+        this.employeeImportService = employeeImportService;
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<EmployeeImportResponse> importEmployees(Authentication authentication,
+                                                                  @RequestBody List<EmployeeImportRequest> rows) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(employeeImportService.importEmployees(userId, rows));
+    }
+}
@@ -0,0 +1,43 @@
+package com.it342.timesheets.controller;
+
+import com.it342.timesheets.dto.PayrollEmployeeSummaryResponse;
+import com.it342.timesheets.dto.PayrollRunResponse;
+import com.it342.timesheets.service.PayrollService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payroll")
+public class PayrollController {
+
+    private final PayrollService payrollService;
+
+    public PayrollController(PayrollService payrollService) {
+        this.payrollService = payrollService;
+    }
+
+    @PostMapping("/periods")
+    public ResponseEntity<PayrollRunResponse> run(Authentication authentication,
+                                                  @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(payrollService.run(userId, from, to));
+    }
+
+    @GetMapping("/periods")
+    public ResponseEntity<List<PayrollEmployeeSummaryResponse>> getSummaries(Authentication authentication,
+                                                                             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(payrollService.getSummaries(userId, from, to));
+    }
+}
@@ -1,28 +1,132 @@
 package com.it342.timesheets.controller;
 
+import com.it342.timesheets.dto.ClockEventBatchResponse;
+import com.it342.timesheets.dto.ClockEventRequest;
+import com.it342.timesheets.dto.EmployerSummaryResponse;
+import com.it342.timesheets.dto.PresenceResponse;
+import com.it342.timesheets.dto.ReplayResponse;
 import com.it342.timesheets.dto.TimesheetDashboardResponse;
+import com.it342.timesheets.dto.TrendPointResponse;
+import com.it342.timesheets.service.ClockEventBroadcaster;
+import com.it342.timesheets.service.ClockEventIngestionService;
+import com.it342.timesheets.service.ClockEventLog;
+import com.it342.timesheets.service.TimesheetExportService;
+import com.it342.timesheets.service.TimesheetRollupService;
 import com.it342.timesheets.service.TimesheetService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/timesheets")
 public class TimesheetController {
 
     private final TimesheetService timesheetService;
+    private final TimesheetExportService timesheetExportService;
+    private final TimesheetRollupService timesheetRollupService;
+    private final ClockEventBroadcaster clockEventBroadcaster;
+    private final ClockEventLog clockEventLog;
+    private final ClockEventIngestionService clockEventIngestionService;
 
-    public TimesheetController(TimesheetService timesheetService) {
+    public TimesheetController(TimesheetService timesheetService,
+                               TimesheetExportService timesheetExportService,
+                               TimesheetRollupService timesheetRollupService,
+                               ClockEventBroadcaster clockEventBroadcaster,
+                               ClockEventLog clockEventLog,
+                               ClockEventIngestionService clockEventIngestionService) {
         this.timesheetService = timesheetService;
+        this.timesheetExportService = timesheetExportService;
+        this.timesheetRollupService = timesheetRollupService;
+        this.clockEventBroadcaster = clockEventBroadcaster;
+        this.clockEventLog = clockEventLog;
+        this.clockEventIngestionService = clockEventIngestionService;
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<TimesheetDashboardResponse> getDashboard(Authentication authentication) {
+    public ResponseEntity<TimesheetDashboardResponse> getDashboard(Authentication authentication,
+                                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                                   @RequestParam(value = "limit", required = false) Integer limit) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(timesheetService.getDashboard(userId, cursor, limit));
+    }
+
+    @GetMapping("/presence")
+    public ResponseEntity<PresenceResponse> getPresence(Authentication authentication) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(timesheetService.getPresence(userId));
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<EmployerSummaryResponse> getSummary(Authentication authentication,
+                                                              @RequestParam(value = "from", required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(value = "to", required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(timesheetService.getSummary(userId, from, to));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(Authentication authentication) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return clockEventBroadcaster.subscribe(userId);
+    }
+
+    @GetMapping("/trends")
+    public ResponseEntity<List<TrendPointResponse>> getTrend(Authentication authentication,
+                                                             @RequestParam(value = "from", required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(value = "to", required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                             @RequestParam(value = "granularity", required = false) String granularity,
+                                                             @RequestParam(value = "employeeId", required = false) Integer employeeId) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(timesheetRollupService.getTrend(userId, from, to, granularity, employeeId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(Authentication authentication,
+                                                        @RequestParam("from")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam("to")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                        @RequestParam(value = "format", required = false) String format) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        TimesheetExportService.Format exportFormat = TimesheetExportService.Format.parse(format);
+        StreamingResponseBody body = timesheetExportService.export(userId, from, to, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"timesheets-" + from + "-" + to + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/employees/{employeeId}/replay")
+    public ResponseEntity<ReplayResponse> replay(Authentication authentication, @PathVariable Integer employeeId,
+                                                 @RequestParam(value = "full", defaultValue = "false") boolean full) {
+        Integer userId = (Integer) authentication.getPrincipal();
+        return ResponseEntity.ok(clockEventLog.replay(userId, employeeId, full));
+    }
+
+    @PostMapping("/clock-events/batch")
+    public ResponseEntity<ClockEventBatchResponse> ingestClockEvents(Authentication authentication,
+                                                                     @RequestBody List<ClockEventRequest> events) {
         Integer userId = (Integer) authentication.getPrincipal();
-        return ResponseEntity.ok(timesheetService.getDashboard(userId));
+        return ResponseEntity.ok(clockEventIngestionService.ingest(userId, events));
     }
 
     @PostMapping("/clock-in")
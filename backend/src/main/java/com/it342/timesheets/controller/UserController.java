@@ -3,6 +3,7 @@ package com.it342.timesheets.controller;
 import com.it342.timesheets.dto.UserResponse;
 import com.it342.timesheets.service.AuthService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,19 +17,11 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getMe(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        String token = extractToken(authHeader);
-        if (token == null) {
+    public ResponseEntity<UserResponse> getMe(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof Integer userId)) {
             return ResponseEntity.status(401).build();
         }
-        UserResponse user = authService.getCurrentUser(token);
+        UserResponse user = authService.getCurrentUser(userId);
         return ResponseEntity.ok(user);
     }
-
-    private String extractToken(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-        return null;
-    }
 }
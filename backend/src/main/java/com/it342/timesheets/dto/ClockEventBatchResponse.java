@@ -0,0 +1,20 @@
+package com.it342.timesheets.dto;
+
+import java.util.List;
+
+public class ClockEventBatchResponse {
+
+    private int applied;
+    private int rejected;
+    private List<ClockEventResult> results;
+
+    public ClockEventBatchResponse(int applied, int rejected, List<ClockEventResult> results) {
+        this.applied = applied;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getApplied() { return applied; }
+    public int getRejected() { return rejected; }
+    public List<ClockEventResult> getResults() { return results; }
+}
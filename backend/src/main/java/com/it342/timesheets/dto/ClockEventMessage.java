@@ -0,0 +1,52 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ClockEventMessage {
+
+    private String type;
+    private Integer employeeId;
+    private String employeeName;
+    private Integer recordId;
+    private LocalDateTime at;
+    private BigDecimal hoursWorked;
+
+    public ClockEventMessage(String type,
+                             Integer employeeId,
+                             String employeeName,
+                             Integer recordId,
+                             LocalDateTime at,
+                             BigDecimal hoursWorked) {
+        this.type = type;
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.recordId = recordId;
+        this.at = at;
+        this.hoursWorked = hoursWorked;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public BigDecimal getHoursWorked() {
+        return hoursWorked;
+    }
+}
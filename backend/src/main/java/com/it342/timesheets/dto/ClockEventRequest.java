@@ -0,0 +1,27 @@
+package com.it342.timesheets.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.LocalDateTime;
+
+public class ClockEventRequest {
+
+    @NotNull(message = "Employee is required")
+    private Integer employeeId;
+
+    @NotBlank(message = "Type is required")
+    @Pattern(regexp = "clock_in|clock_out", message = "Type must be clock_in or clock_out")
+    private String type;
+
+    @NotNull(message = "Event time is required")
+    private LocalDateTime occurredAt;
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,35 @@
+package com.it342.timesheets.dto;
+
+public class ClockEventResult {
+
+    private int index;
+    private Integer employeeId;
+    private String type;
+    private String status;
+    private Integer recordId;
+    private String error;
+
+    public ClockEventResult(int index, Integer employeeId, String type, String status, Integer recordId, String error) {
+        this.index = index;
+        this.employeeId = employeeId;
+        this.type = type;
+        this.status = status;
+        this.recordId = recordId;
+        this.error = error;
+    }
+
+    public static ClockEventResult applied(int index, Integer employeeId, String type, Integer recordId) {
+        return new ClockEventResult(index, employeeId, type, "applied", recordId, null);
+    }
+
+    public static ClockEventResult rejected(int index, Integer employeeId, String type, String error) {
+        return new ClockEventResult(index, employeeId, type, "rejected", null, error);
+    }
+
+    public int getIndex() { return index; }
+    public Integer getEmployeeId() { return employeeId; }
+    public String getType() { return type; }
+    public String getStatus() { return status; }
+    public Integer getRecordId() { return recordId; }
+    public String getError() { return error; }
+}
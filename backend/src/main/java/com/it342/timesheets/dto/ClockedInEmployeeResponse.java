@@ -0,0 +1,34 @@
+package com.it342.timesheets.dto;
+
+import java.time.LocalDateTime;
+
+public class ClockedInEmployeeResponse {
+
+    private Integer employeeId;
+    private String employeeName;
+    private Integer recordId;
+    private LocalDateTime clockInAt;
+
+    public ClockedInEmployeeResponse(Integer employeeId, String employeeName, Integer recordId, LocalDateTime clockInAt) {
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.recordId = recordId;
+        this.clockInAt = clockInAt;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public LocalDateTime getClockInAt() {
+        return clockInAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.it342.timesheets.dto;
+
+/**
+ * What the timesheet endpoints need to know about an employee account: its
+ * employees row and the employer it belongs to.
+ */
+public record EmployeeContext(Integer employeeId, String employeeName, Integer employerId, String employerName) {}
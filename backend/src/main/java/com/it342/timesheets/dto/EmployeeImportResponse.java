@@ -0,0 +1,20 @@
+package com.it342.timesheets.dto;
+
+import java.util.List;
+
+public class EmployeeImportResponse {
+
+    private int created;
+    private int rejected;
+    private List<EmployeeImportResult> results;
+
+    public EmployeeImportResponse(int created, int rejected, List<EmployeeImportResult> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() { return created; }
+    public int getRejected() { return rejected; }
+    public List<EmployeeImportResult> getResults() { return results; }
+}
@@ -0,0 +1,32 @@
+package com.it342.timesheets.dto;
+
+public class EmployeeImportResult {
+
+    private int row;
+    private String username;
+    private String status;
+    private Integer userId;
+    private String error;
+
+    public EmployeeImportResult(int row, String username, String status, Integer userId, String error) {
+        this.row = row;
+        this.username = username;
+        this.status = status;
+        this.userId = userId;
+        this.error = error;
+    }
+
+    public static EmployeeImportResult created(int row, String username, Integer userId) {
+        return new EmployeeImportResult(row, username, "created", userId, null);
+    }
+
+    public static EmployeeImportResult rejected(int row, String username, String error) {
+        return new EmployeeImportResult(row, username, "rejected", null, error);
+    }
+
+    public int getRow() { return row; }
+    public String getUsername() { return username; }
+    public String getStatus() { return status; }
+    public Integer getUserId() { return userId; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,52 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class EmployeeSummaryResponse {
+
+    private Integer employeeId;
+    private String employeeName;
+    private BigDecimal totalHours;
+    private long shiftCount;
+    private LocalDateTime lastClockInAt;
+    private String status;
+
+    public EmployeeSummaryResponse(Integer employeeId,
+                                   String employeeName,
+                                   BigDecimal totalHours,
+                                   long shiftCount,
+                                   LocalDateTime lastClockInAt,
+                                   String status) {
+        this.employeeId = employeeId;
+        this.employeeName = employeeName;
+        this.totalHours = totalHours;
+        this.shiftCount = shiftCount;
+        this.lastClockInAt = lastClockInAt;
+        this.status = status;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public BigDecimal getTotalHours() {
+        return totalHours;
+    }
+
+    public long getShiftCount() {
+        return shiftCount;
+    }
+
+    public LocalDateTime getLastClockInAt() {
+        return lastClockInAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,46 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class EmployerSummaryResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal totalHours;
+    private int clockedInCount;
+    private List<EmployeeSummaryResponse> employees;
+
+    public EmployerSummaryResponse(LocalDate from,
+                                   LocalDate to,
+                                   BigDecimal totalHours,
+                                   int clockedInCount,
+                                   List<EmployeeSummaryResponse> employees) {
+        this.from = from;
+        this.to = to;
+        this.totalHours = totalHours;
+        this.clockedInCount = clockedInCount;
+        this.employees = employees;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public BigDecimal getTotalHours() {
+        return totalHours;
+    }
+
+    public int getClockedInCount() {
+        return clockedInCount;
+    }
+
+    public List<EmployeeSummaryResponse> getEmployees() {
+        return employees;
+    }
+}
@@ -0,0 +1,51 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+
+public class PayrollEmployeeSummaryResponse {
+
+    private Integer employeeId;
+    private BigDecimal regularHours;
+    private BigDecimal dailyOvertimeHours;
+    private BigDecimal weeklyOvertimeHours;
+    private BigDecimal totalHours;
+    private Integer shiftCount;
+
+    public PayrollEmployeeSummaryResponse(Integer employeeId,
+                                          BigDecimal regularHours,
+                                          BigDecimal dailyOvertimeHours,
+                                          BigDecimal weeklyOvertimeHours,
+                                          BigDecimal totalHours,
+                                          Integer shiftCount) {
+        this.employeeId = employeeId;
+        this.regularHours = regularHours;
+        this.dailyOvertimeHours = dailyOvertimeHours;
+        this.weeklyOvertimeHours = weeklyOvertimeHours;
+        this.totalHours = totalHours;
+        this.shiftCount = shiftCount;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public BigDecimal getRegularHours() {
+        return regularHours;
+    }
+
+    public BigDecimal getDailyOvertimeHours() {
+        return dailyOvertimeHours;
+    }
+
+    public BigDecimal getWeeklyOvertimeHours() {
+        return weeklyOvertimeHours;
+    }
+
+    public BigDecimal getTotalHours() {
+        return totalHours;
+    }
+
+    public Integer getShiftCount() {
+        return shiftCount;
+    }
+}
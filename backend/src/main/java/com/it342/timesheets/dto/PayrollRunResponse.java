@@ -0,0 +1,74 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class PayrollRunResponse {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int employeeCount;
+    private long shiftCount;
+    private BigDecimal regularHours;
+    private BigDecimal dailyOvertimeHours;
+    private BigDecimal weeklyOvertimeHours;
+    private BigDecimal totalHours;
+    private LocalDateTime computedAt;
+
+    public PayrollRunResponse(LocalDate from,
+                              LocalDate to,
+                              int employeeCount,
+                              long shiftCount,
+                              BigDecimal regularHours,
+                              BigDecimal dailyOvertimeHours,
+                              BigDecimal weeklyOvertimeHours,
+                              BigDecimal totalHours,
+                              LocalDateTime computedAt) {
+        this.from = from;
+        this.to = to;
+        this.employeeCount = employeeCount;
+        this.shiftCount = shiftCount;
+        this.regularHours = regularHours;
+        this.dailyOvertimeHours = dailyOvertimeHours;
+        this.weeklyOvertimeHours = weeklyOvertimeHours;
+        this.totalHours = totalHours;
+        this.computedAt = computedAt;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public long getShiftCount() {
+        return shiftCount;
+    }
+
+    public BigDecimal getRegularHours() {
+        return regularHours;
+    }
+
+    public BigDecimal getDailyOvertimeHours() {
+        return dailyOvertimeHours;
+    }
+
+    public BigDecimal getWeeklyOvertimeHours() {
+        return weeklyOvertimeHours;
+    }
+
+    public BigDecimal getTotalHours() {
+        return totalHours;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+}
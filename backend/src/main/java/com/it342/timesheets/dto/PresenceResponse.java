@@ -0,0 +1,22 @@
+package com.it342.timesheets.dto;
+
+import java.util.List;
+
+public class PresenceResponse {
+
+    private int count;
+    private List<ClockedInEmployeeResponse> clockedIn;
+
+    public PresenceResponse(int count, List<ClockedInEmployeeResponse> clockedIn) {
+        this.count = count;
+        this.clockedIn = clockedIn;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public List<ClockedInEmployeeResponse> getClockedIn() {
+        return clockedIn;
+    }
+}
@@ -0,0 +1,26 @@
+package com.it342.timesheets.dto;
+
+public class ReplayResponse {
+
+    private Integer employeeId;
+    private int events;
+    private int records;
+
+    public ReplayResponse(Integer employeeId, int events, int records) {
+        this.employeeId = employeeId;
+        this.events = events;
+        this.records = records;
+    }
+
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+
+    public int getEvents() {
+        return events;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+}
@@ -11,19 +11,22 @@ public class TimesheetDashboardResponse {
     private boolean clockedIn;
     private List<String> employees;
     private List<TimesheetRecordResponse> records;
+    private String nextCursor;
 
     public TimesheetDashboardResponse(String role,
                                       String employerName,
                                       BigDecimal accumulatedHours,
                                       boolean clockedIn,
                                       List<String> employees,
-                                      List<TimesheetRecordResponse> records) {
+                                      List<TimesheetRecordResponse> records,
+                                      String nextCursor) {
         this.role = role;
         this.employerName = employerName;
         this.accumulatedHours = accumulatedHours;
         this.clockedIn = clockedIn;
         this.employees = employees;
         this.records = records;
+        this.nextCursor = nextCursor;
     }
 
     public String getRole() {
@@ -49,4 +52,8 @@ public class TimesheetDashboardResponse {
     public List<TimesheetRecordResponse> getRecords() {
         return records;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
@@ -0,0 +1,29 @@
+package com.it342.timesheets.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TrendPointResponse {
+
+    private LocalDateTime bucketStart;
+    private BigDecimal hours;
+    private int shiftCount;
+
+    public TrendPointResponse(LocalDateTime bucketStart, BigDecimal hours, int shiftCount) {
+        this.bucketStart = bucketStart;
+        this.hours = hours;
+        this.shiftCount = shiftCount;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public BigDecimal getHours() {
+        return hours;
+    }
+
+    public int getShiftCount() {
+        return shiftCount;
+    }
+}
@@ -0,0 +1,58 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only clock event log. Rows are inserted and never
+ * updated; timesheet_records is a projection of them.
+ */
+@Entity
+@Table(name = "clock_events", indexes = {
+    @Index(columnList = "employee_id, event_id"),
+    @Index(columnList = "record_id")
+})
+public class ClockEventEntry {
+
+    public static final String CLOCK_IN = "clock_in";
+    public static final String CLOCK_OUT = "clock_out";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "employee_id", nullable = false, updatable = false)
+    private Integer employeeId;
+
+    @Column(name = "employer_id", nullable = false, updatable = false)
+    private Integer employerId;
+
+    @Column(name = "record_id", nullable = false, updatable = false)
+    private Integer recordId;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 20)
+    private String eventType;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt = LocalDateTime.now();
+
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+    public Integer getEmployerId() { return employerId; }
+    public void setEmployerId(Integer employerId) { this.employerId = employerId; }
+    public Integer getRecordId() { return recordId; }
+    public void setRecordId(Integer recordId) { this.recordId = recordId; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -20,6 +20,10 @@ public class Employee {
     @JoinColumn(name = "created_by_user_id", nullable = false)
     private User createdByUser;
 
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", unique = true)
+    private User user;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -50,6 +54,14 @@ public class Employee {
         this.createdByUser = createdByUser;
     }
 
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,55 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An employee's clock state folded from clock_events up to last_event_id.
+ */
+@Entity
+@Table(name = "employee_clock_snapshots")
+public class EmployeeClockSnapshot {
+
+    @Id
+    @Column(name = "employee_id")
+    private Integer employeeId;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId = 0L;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount = 0L;
+
+    @Column(name = "shift_count", nullable = false)
+    private Long shiftCount = 0L;
+
+    @Column(name = "worked_seconds", nullable = false)
+    private Long workedSeconds = 0L;
+
+    @Column(name = "open_record_id")
+    private Integer openRecordId;
+
+    @Column(name = "open_since")
+    private LocalDateTime openSince;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+    public Long getLastEventId() { return lastEventId; }
+    public void setLastEventId(Long lastEventId) { this.lastEventId = lastEventId; }
+    public Long getEventCount() { return eventCount; }
+    public void setEventCount(Long eventCount) { this.eventCount = eventCount; }
+    public Long getShiftCount() { return shiftCount; }
+    public void setShiftCount(Long shiftCount) { this.shiftCount = shiftCount; }
+    public Long getWorkedSeconds() { return workedSeconds; }
+    public void setWorkedSeconds(Long workedSeconds) { this.workedSeconds = workedSeconds; }
+    public Integer getOpenRecordId() { return openRecordId; }
+    public void setOpenRecordId(Integer openRecordId) { this.openRecordId = openRecordId; }
+    public LocalDateTime getOpenSince() { return openSince; }
+    public void setOpenSince(LocalDateTime openSince) { this.openSince = openSince; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,33 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "employee_hours_totals")
+public class EmployeeHoursTotal {
+
+    @Id
+    @Column(name = "employee_id")
+    private Integer employeeId;
+
+    @Column(name = "total_hours", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalHours = BigDecimal.ZERO;
+
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+    public BigDecimal getTotalHours() { return totalHours; }
+    public void setTotalHours(BigDecimal totalHours) { this.totalHours = totalHours; }
+    public Integer getRecordCount() { return recordCount; }
+    public void setRecordCount(Integer recordCount) { this.recordCount = recordCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
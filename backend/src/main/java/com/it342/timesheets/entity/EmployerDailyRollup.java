@@ -0,0 +1,42 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "employer_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_employer_daily_rollup", columnNames = {"employer_id", "bucket_date"})
+}, indexes = {
+    @Index(columnList = "bucket_date")
+})
+public class EmployerDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "employer_id", nullable = false)
+    private Integer employerId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "worked_seconds", nullable = false)
+    private Long workedSeconds;
+
+    @Column(name = "shift_count", nullable = false)
+    private Integer shiftCount;
+
+    public Long getRollupId() { return rollupId; }
+    public void setRollupId(Long rollupId) { this.rollupId = rollupId; }
+    public Integer getEmployerId() { return employerId; }
+    public void setEmployerId(Integer employerId) { this.employerId = employerId; }
+    public LocalDate getBucketDate() { return bucketDate; }
+    public void setBucketDate(LocalDate bucketDate) { this.bucketDate = bucketDate; }
+    public Long getWorkedSeconds() { return workedSeconds; }
+    public void setWorkedSeconds(Long workedSeconds) { this.workedSeconds = workedSeconds; }
+    public Integer getShiftCount() { return shiftCount; }
+    public void setShiftCount(Integer shiftCount) { this.shiftCount = shiftCount; }
+}
@@ -0,0 +1,42 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "employer_hourly_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_employer_hourly_rollup", columnNames = {"employer_id", "bucket_start"})
+}, indexes = {
+    @Index(columnList = "bucket_start")
+})
+public class EmployerHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "employer_id", nullable = false)
+    private Integer employerId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "worked_seconds", nullable = false)
+    private Long workedSeconds;
+
+    @Column(name = "shift_count", nullable = false)
+    private Integer shiftCount;
+
+    public Long getRollupId() { return rollupId; }
+    public void setRollupId(Long rollupId) { this.rollupId = rollupId; }
+    public Integer getEmployerId() { return employerId; }
+    public void setEmployerId(Integer employerId) { this.employerId = employerId; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public Long getWorkedSeconds() { return workedSeconds; }
+    public void setWorkedSeconds(Long workedSeconds) { this.workedSeconds = workedSeconds; }
+    public Integer getShiftCount() { return shiftCount; }
+    public void setShiftCount(Integer shiftCount) { this.shiftCount = shiftCount; }
+}
@@ -0,0 +1,72 @@
+package com.it342.timesheets.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payroll_period_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payroll_period_employee", columnNames = {"employer_id", "period_start", "period_end", "employee_id"})
+})
+public class PayrollPeriodSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "summary_id")
+    private Long summaryId;
+
+    @Column(name = "employer_id", nullable = false)
+    private Integer employerId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Integer employeeId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "regular_hours", nullable = false, precision = 10, scale = 2)
+    private BigDecimal regularHours;
+
+    @Column(name = "daily_overtime_hours", nullable = false, precision = 10, scale = 2)
+    private BigDecimal dailyOvertimeHours;
+
+    @Column(name = "weekly_overtime_hours", nullable = false, precision = 10, scale = 2)
+    private BigDecimal weeklyOvertimeHours;
+
+    @Column(name = "total_hours", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalHours;
+
+    @Column(name = "shift_count", nullable = false)
+    private Integer shiftCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public Long getSummaryId() { return summaryId; }
+    public void setSummaryId(Long summaryId) { this.summaryId = summaryId; }
+    public Integer getEmployerId() { return employerId; }
+    public void setEmployerId(Integer employerId) { this.employerId = employerId; }
+    public Integer getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Integer employeeId) { this.employeeId = employeeId; }
+    public LocalDate getPeriodStart() { return periodStart; }
+    public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+    public LocalDate getPeriodEnd() { return periodEnd; }
+    public void setPeriodEnd(LocalDate periodEnd) { this.periodEnd = periodEnd; }
+    public BigDecimal getRegularHours() { return regularHours; }
+    public void setRegularHours(BigDecimal regularHours) { this.regularHours = regularHours; }
+    public BigDecimal getDailyOvertimeHours() { return dailyOvertimeHours; }
+    public void setDailyOvertimeHours(BigDecimal dailyOvertimeHours) { this.dailyOvertimeHours = dailyOvertimeHours; }
+    public BigDecimal getWeeklyOvertimeHours() { return weeklyOvertimeHours; }
+    public void setWeeklyOvertimeHours(BigDecimal weeklyOvertimeHours) { this.weeklyOvertimeHours = weeklyOvertimeHours; }
+    public BigDecimal getTotalHours() { return totalHours; }
+    public void setTotalHours(BigDecimal totalHours) { this.totalHours = totalHours; }
+    public Integer getShiftCount() { return shiftCount; }
+    public void setShiftCount(Integer shiftCount) { this.shiftCount = shiftCount; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -6,7 +6,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "timesheet_records")
+@Table(name = "timesheet_records", indexes = {
+    @Index(columnList = "created_by_user_id, clock_in_time, record_id"),
+    @Index(columnList = "employee_id, clock_in_time, record_id"),
+    @Index(columnList = "clock_in_time, clock_out_time")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_timesheet_records_open_shift", columnNames = "open_shift_key")
+})
 public class TimesheetRecord {
 
     @Id
@@ -34,6 +40,12 @@ public class TimesheetRecord {
     @Column(name = "status", nullable = false, length = 20)
     private String status = "clocked_in";
 
+    // Equals employee_id while the record is open and NULL once closed, so the
+    // unique constraint allows at most one open record per employee.
+    @Column(name = "open_shift_key", insertable = false, updatable = false,
+            columnDefinition = "INT GENERATED ALWAYS AS (CASE WHEN status = 'clocked_in' THEN employee_id END) STORED")
+    private Integer openShiftKey;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -1,5 +1,7 @@
 package com.it342.timesheets.exception;
 
+import com.it342.timesheets.security.LoginRateLimiter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -12,15 +14,32 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final ResponseEntity<Map<String, String>> tooManyRequests;
+
+    public GlobalExceptionHandler(LoginRateLimiter loginRateLimiter) {
+        this.tooManyRequests = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.getRetryAfterSeconds()))
+                .body(Map.of("error", TooManyRequestsException.INSTANCE.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         String message = ex.getMessage();
         HttpStatus status = HttpStatus.BAD_REQUEST;
         if ("Invalid credentials".equals(message) || "User not found".equals(message) || "Invalid or expired token".equals(message)) {
             status = HttpStatus.UNAUTHORIZED;
-        } else if ("User already exists".equals(message) || "Email already exists".equals(message)) {
+        } else if ("User already exists".equals(message) || "Email already exists".equals(message)
+                || "Open record conflicts with the clock event log".equals(message)) {
             status = HttpStatus.CONFLICT;
-        } else if ("Only employees can clock in/out".equals(message)) {
+        } else if ("Only employees can clock in/out".equals(message) || "Only employers can import employees".equals(message)
+                || "Only employers can view presence".equals(message)
+                || "Only employers can view summaries".equals(message)
+                || "Only employers can export timesheets".equals(message)
+                || "Only employers can run payroll".equals(message)
+                || "Only employers can view trends".equals(message)
+                || "Only employers can subscribe to events".equals(message)
+                || "Only employers can replay timesheets".equals(message)
+                || "Only employers can submit clock events".equals(message)) {
             status = HttpStatus.FORBIDDEN;
         } else if ("Account is disabled".equals(message) || "Account locked".equals(message)) {
             status = HttpStatus.FORBIDDEN;
@@ -28,6 +47,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(Map.of("error", message));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequests(TooManyRequestsException ex) {
+        return tooManyRequests;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidation(MethodArgumentNotValidException ex) {
         String firstError = ex.getBindingResult().getFieldErrors().stream()
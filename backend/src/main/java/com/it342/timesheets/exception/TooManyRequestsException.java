@@ -0,0 +1,14 @@
+package com.it342.timesheets.exception;
+
+/**
+ * Thrown on the login rate-limit path. A single shared instance without a
+ * stack trace is used so rejecting a request costs next to nothing.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    public static final TooManyRequestsException INSTANCE = new TooManyRequestsException();
+
+    private TooManyRequestsException() {
+        super("Too many login attempts", null, false, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.ClockEventEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ClockEventEntryRepository extends JpaRepository<ClockEventEntry, Long> {
+
+    List<ClockEventEntry> findByEmployeeIdAndEventIdGreaterThanOrderByEventIdAsc(Integer employeeId, Long eventId, Limit limit);
+
+    @Query(value = """
+            SELECT e.employee_id, COUNT(*)
+            FROM clock_events e
+            LEFT JOIN employee_clock_snapshots s ON s.employee_id = e.employee_id
+            WHERE e.event_id > COALESCE(s.last_event_id, 0)
+            GROUP BY e.employee_id""", nativeQuery = true)
+    List<Object[]> countEventsSinceSnapshot();
+}
@@ -0,0 +1,7 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.EmployeeClockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmployeeClockSnapshotRepository extends JpaRepository<EmployeeClockSnapshot, Integer> {
+}
@@ -0,0 +1,14 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.EmployeeDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EmployeeDailyRollupRepository extends JpaRepository<EmployeeDailyRollup, Long> {
+
+    List<EmployeeDailyRollup> findByEmployeeIdAndBucketDateBetweenOrderByBucketDateAsc(Integer employeeId,
+                                                                                        LocalDate from,
+                                                                                        LocalDate to);
+}
@@ -0,0 +1,54 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.EmployeeHoursTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface EmployeeHoursTotalRepository extends JpaRepository<EmployeeHoursTotal, Integer> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO employee_hours_totals (employee_id, total_hours, record_count, updated_at)
+            VALUES (:employeeId, :hours, 1, :now) AS new
+            ON DUPLICATE KEY UPDATE
+                total_hours = total_hours + new.total_hours,
+                record_count = record_count + 1,
+                updated_at = new.updated_at""", nativeQuery = true)
+    int addShift(@Param("employeeId") Integer employeeId,
+                 @Param("hours") BigDecimal hours,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO employee_hours_totals (employee_id, total_hours, record_count, updated_at)
+            SELECT * FROM (
+                SELECT employee_id, COALESCE(SUM(hours_worked), 0) AS total_hours,
+                       COUNT(*) AS record_count, :now AS updated_at
+                FROM timesheet_records
+                WHERE status = 'clocked_out'
+                GROUP BY employee_id
+            ) AS rebuilt
+            ON DUPLICATE KEY UPDATE
+                total_hours = rebuilt.total_hours,
+                record_count = rebuilt.record_count,
+                updated_at = rebuilt.updated_at""", nativeQuery = true)
+    int rebuildAll(@Param("now") LocalDateTime now);
+
+    /**
+     * Removes totals for employees who no longer have any closed record, which
+     * {@link #rebuildAll} cannot reach because it only upserts.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM employee_hours_totals
+            WHERE NOT EXISTS (
+                SELECT 1 FROM timesheet_records r
+                WHERE r.employee_id = employee_hours_totals.employee_id
+                  AND r.status = 'clocked_out')""", nativeQuery = true)
+    int deleteWithoutClosedRecords();
+}
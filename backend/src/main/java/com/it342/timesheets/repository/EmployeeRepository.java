@@ -1,8 +1,12 @@
 package com.it342.timesheets.repository;
 
+import com.it342.timesheets.dto.EmployeeContext;
 import com.it342.timesheets.entity.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +14,22 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
 
     List<Employee> findByCreatedByUser_UserIdAndIsActiveTrueOrderByEmployeeNameAsc(Integer employerId);
 
-    Optional<Employee> findTopByEmployeeNameAndCreatedByUser_UserIdOrderByEmployeeIdDesc(String employeeName, Integer employerId);
+    boolean existsByEmployeeIdAndCreatedByUser_UserId(Integer employeeId, Integer employerId);
+
+    @Query("""
+            select new com.it342.timesheets.dto.EmployeeContext(e.employeeId, e.employeeName, u.userId, u.username)
+            from Employee e join e.createdByUser u
+            where e.user.userId = :userId""")
+    Optional<EmployeeContext> findContextByUserId(@Param("userId") Integer userId);
+
+    @Query("""
+            select e.employeeId, e.employeeName, sum(r.hoursWorked), count(r.recordId), max(r.clockInAt)
+            from Employee e
+            left join TimesheetRecord r on r.employee = e and r.clockInAt >= :from and r.clockInAt < :to
+            where e.createdByUser.userId = :employerId and e.isActive = true
+            group by e.employeeId, e.employeeName
+            order by e.employeeName""")
+    List<Object[]> summarizeByEmployer(@Param("employerId") Integer employerId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,14 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.EmployerDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface EmployerDailyRollupRepository extends JpaRepository<EmployerDailyRollup, Long> {
+
+    List<EmployerDailyRollup> findByEmployerIdAndBucketDateBetweenOrderByBucketDateAsc(Integer employerId,
+                                                                                        LocalDate from,
+                                                                                        LocalDate to);
+}
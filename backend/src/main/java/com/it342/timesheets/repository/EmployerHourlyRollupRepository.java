@@ -0,0 +1,13 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.EmployerHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmployerHourlyRollupRepository extends JpaRepository<EmployerHourlyRollup, Long> {
+
+    List<EmployerHourlyRollup> findByEmployerIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Integer employerId, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,14 @@
+package com.it342.timesheets.repository;
+
+import com.it342.timesheets.entity.PayrollPeriodSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PayrollPeriodSummaryRepository extends JpaRepository<PayrollPeriodSummary, Long> {
+
+    List<PayrollPeriodSummary> findByEmployerIdAndPeriodStartAndPeriodEndOrderByEmployeeIdAsc(Integer employerId,
+                                                                                               LocalDate periodStart,
+                                                                                               LocalDate periodEnd);
+}
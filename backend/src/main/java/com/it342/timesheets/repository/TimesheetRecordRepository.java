@@ -1,8 +1,16 @@
 package com.it342.timesheets.repository;
 
+import com.it342.timesheets.dto.TimesheetRecordResponse;
 import com.it342.timesheets.entity.TimesheetRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,7 +18,71 @@ public interface TimesheetRecordRepository extends JpaRepository<TimesheetRecord
 
     Optional<TimesheetRecord> findFirstByEmployee_EmployeeIdAndStatusOrderByClockInAtDesc(Integer employeeId, String status);
 
-    List<TimesheetRecord> findByCreatedByUser_UserIdOrderByClockInAtDesc(Integer employerId);
+    @Modifying
+    @Query("""
+            update TimesheetRecord r
+            set r.clockOutAt = :clockOutAt, r.hoursWorked = :hoursWorked, r.status = 'clocked_out', r.updatedAt = :clockOutAt
+            where r.recordId = :recordId and r.status = 'clocked_in'""")
+    int closeShift(@Param("recordId") Integer recordId,
+                   @Param("clockOutAt") LocalDateTime clockOutAt,
+                   @Param("hoursWorked") BigDecimal hoursWorked);
 
-    List<TimesheetRecord> findByEmployee_EmployeeIdOrderByClockInAtDesc(Integer employeeId);
+    @Query("""
+            select new com.it342.timesheets.dto.TimesheetRecordResponse(
+                r.recordId, e.employeeName, u.username, r.clockInAt, r.clockOutAt, r.hoursWorked)
+            from TimesheetRecord r join r.employee e join r.createdByUser u
+            where r.createdByUser.userId = :employerId
+            order by r.clockInAt desc, r.recordId desc""")
+    List<TimesheetRecordResponse> findPageByEmployer(@Param("employerId") Integer employerId, Limit limit);
+
+    @Query("""
+            select new com.it342.timesheets.dto.TimesheetRecordResponse(
+                r.recordId, e.employeeName, u.username, r.clockInAt, r.clockOutAt, r.hoursWorked)
+            from TimesheetRecord r join r.employee e join r.createdByUser u
+            where r.createdByUser.userId = :employerId
+              and (r.clockInAt < :clockInAt or (r.clockInAt = :clockInAt and r.recordId < :recordId))
+            order by r.clockInAt desc, r.recordId desc""")
+    List<TimesheetRecordResponse> findPageByEmployerAfter(@Param("employerId") Integer employerId,
+                                                          @Param("clockInAt") LocalDateTime clockInAt,
+                                                          @Param("recordId") Integer recordId,
+                                                          Limit limit);
+
+    @Query("""
+            select new com.it342.timesheets.dto.TimesheetRecordResponse(
+                r.recordId, e.employeeName, u.username, r.clockInAt, r.clockOutAt, r.hoursWorked)
+            from TimesheetRecord r join r.employee e join r.createdByUser u
+            where r.employee.employeeId = :employeeId
+            order by r.clockInAt desc, r.recordId desc""")
+    List<TimesheetRecordResponse> findPageByEmployee(@Param("employeeId") Integer employeeId, Limit limit);
+
+    @Query("""
+            select new com.it342.timesheets.dto.TimesheetRecordResponse(
+                r.recordId, e.employeeName, u.username, r.clockInAt, r.clockOutAt, r.hoursWorked)
+            from TimesheetRecord r join r.employee e join r.createdByUser u
+            where r.employee.employeeId = :employeeId
+              and (r.clockInAt < :clockInAt or (r.clockInAt = :clockInAt and r.recordId < :recordId))
+            order by r.clockInAt desc, r.recordId desc""")
+    List<TimesheetRecordResponse> findPageByEmployeeAfter(@Param("employeeId") Integer employeeId,
+                                                          @Param("clockInAt") LocalDateTime clockInAt,
+                                                          @Param("recordId") Integer recordId,
+                                                          Limit limit);
+
+    @Query("""
+            select r.createdByUser.userId, e.employeeId, e.employeeName, r.recordId, r.clockInAt
+            from TimesheetRecord r join r.employee e
+            where r.status = 'clocked_in'""")
+    List<Object[]> findOpenShifts();
+
+    @Query("""
+            select r.employee.employeeId, r.recordId, r.clockInAt
+            from TimesheetRecord r
+            where r.status = 'clocked_in' and r.employee.employeeId in :employeeIds""")
+    List<Object[]> findOpenShiftsByEmployeeIds(@Param("employeeIds") Collection<Integer> employeeIds);
+
+    @Query("""
+            select r.employee.employeeId, max(r.clockOutAt)
+            from TimesheetRecord r
+            where r.status = 'clocked_out' and r.employee.employeeId in :employeeIds
+            group by r.employee.employeeId""")
+    List<Object[]> findLastClockOutsByEmployeeIds(@Param("employeeIds") Collection<Integer> employeeIds);
 }
@@ -2,8 +2,15 @@ package com.it342.timesheets.repository;
 
 import com.it342.timesheets.entity.User;
 import com.it342.timesheets.entity.UserRole;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +18,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByUsername(String username);
 
+    @EntityGraph(attributePaths = "employer")
+    Optional<User> findWithEmployerByUserId(Integer userId);
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsernameOrEmail(String username, String email);
@@ -24,4 +34,21 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     List<User> findTop10ByRoleAndUsernameContainingIgnoreCaseOrderByUsernameAsc(UserRole role, String username);
 
     List<User> findByRoleAndEmployer_UserIdOrderByUsernameAsc(UserRole role, Integer employerId);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.userId, u.username, u.email from User u where u.role = :role")
+    List<Object[]> findSummariesByRole(@Param("role") UserRole role);
+
+    @Query("select u.userId from User u where u.isActive = false")
+    List<Integer> findDisabledUserIds();
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.isActive = false, u.updatedAt = :now where u.userId = :userId")
+    int disableUser(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
 }
@@ -2,7 +2,11 @@ package com.it342.timesheets.repository;
 
 import com.it342.timesheets.entity.UserSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +17,11 @@ public interface UserSessionRepository extends JpaRepository<UserSession, Intege
     Optional<UserSession> findBySessionToken(String sessionToken);
 
     List<UserSession> findByUser_UserIdAndIsActiveTrue(Integer userId);
+
+    @Modifying
+    @Query("update UserSession s set s.isActive = false where s.user.userId = :userId and s.isActive = true")
+    int deactivateActiveSessions(@Param("userId") Integer userId);
+
+    @Query("select s.sessionToken, s.createdAt from UserSession s where s.isActive = false and s.createdAt > :issuedAfter")
+    List<Object[]> findInactiveTokensCreatedAfter(@Param("issuedAfter") LocalDateTime issuedAfter);
 }
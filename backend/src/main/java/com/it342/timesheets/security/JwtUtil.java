@@ -1,5 +1,8 @@
 package com.it342.timesheets.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +10,11 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
@@ -14,12 +22,35 @@ public class JwtUtil {
 
     private final SecretKey secretKey;
     private final long expirationMs;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtUtil(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms:86400000}") long expirationMs) {
+            @Value("${app.jwt.expiration-ms:86400000}") long expirationMs,
+            @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Integer userId) {
@@ -31,22 +62,59 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null if the token is
+     * malformed, badly signed or expired. Tokens seen before are answered from
+     * the cache until their own expiry, skipping the HMAC and JSON parsing.
+     */
+    public VerifiedToken verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.isExpired(Instant.now()) ? null : cached;
+        }
+
+        VerifiedToken verified;
         try {
-            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            Date issuedAt = claims.getIssuedAt();
+            verified = new VerifiedToken(
+                    digest,
+                    Integer.parseInt(claims.getSubject()),
+                    issuedAt == null ? Instant.EPOCH : issuedAt.toInstant(),
+                    claims.getExpiration().toInstant());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    public boolean validateToken(String token) {
+        return verifyToken(token) != null;
     }
 
     public Integer getUserIdFromToken(String token) {
+        VerifiedToken verified = verifyToken(token);
+        return verified == null ? null : verified.userId();
+    }
+
+    public static String digest(String token) {
         try {
-            Claims claims = Jwts.parser().verifyWith(secretKey).build()
-                    .parseSignedClaims(token).getPayload();
-            return Integer.parseInt(claims.getSubject());
-        } catch (JwtException e) {
-            return null;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,147 @@
+package com.it342.timesheets.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limiter for login attempts, keyed separately by normalized
+ * username and by client address. It is consulted before any database or
+ * BCrypt work, so a credential-stuffing burst is turned away cheaply.
+ * <p>
+ * Buckets live in lock-striped, access-ordered maps. Each stripe holds a fixed
+ * number of buckets and drops the least recently used one when full; buckets
+ * that have refilled completely are swept, since they behave like new ones.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final BucketTable usernameBuckets;
+    private final BucketTable addressBuckets;
+    private final long retryAfterSeconds;
+
+    public LoginRateLimiter(@Value("${app.auth.rate-limit.username.capacity:10}") int usernameCapacity,
+                            @Value("${app.auth.rate-limit.username.per-minute:10}") int usernamePerMinute,
+                            @Value("${app.auth.rate-limit.address.capacity:50}") int addressCapacity,
+                            @Value("${app.auth.rate-limit.address.per-minute:50}") int addressPerMinute,
+                            @Value("${app.auth.rate-limit.stripes:32}") int stripes,
+                            @Value("${app.auth.rate-limit.max-entries:100000}") int maxEntries) {
+        this.usernameBuckets = new BucketTable(usernameCapacity, usernamePerMinute, stripes, maxEntries);
+        this.addressBuckets = new BucketTable(addressCapacity, addressPerMinute, stripes, maxEntries);
+        this.retryAfterSeconds = (long) Math.ceil(60d / Math.max(1, Math.min(usernamePerMinute, addressPerMinute)));
+    }
+
+    public boolean tryAcquire(String normalizedUsername, String remoteAddress) {
+        return tryAcquire(normalizedUsername, remoteAddress, System.nanoTime());
+    }
+
+    /**
+     * Seconds until an empty bucket of the slower-refilling kind has a token again.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    boolean tryAcquire(String normalizedUsername, String remoteAddress, long now) {
+        if (remoteAddress != null && !addressBuckets.tryAcquire(remoteAddress, now)) {
+            return false;
+        }
+        return usernameBuckets.tryAcquire(normalizedUsername, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        usernameBuckets.evictIdle(now);
+        addressBuckets.evictIdle(now);
+    }
+
+    private static final class BucketTable {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private final long nanosToFull;
+        private final Stripe[] stripes;
+        private final int mask;
+
+        BucketTable(int capacity, int perMinute, int stripeCount, int maxEntries) {
+            int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+            this.capacity = capacity;
+            this.tokensPerNano = perMinute / 60_000_000_000d;
+            this.nanosToFull = (long) Math.ceil(capacity / tokensPerNano);
+            this.stripes = new Stripe[size];
+            this.mask = size - 1;
+            int perStripe = Math.max(1, maxEntries / size);
+            for (int i = 0; i < size; i++) {
+                stripes[i] = new Stripe(perStripe);
+            }
+        }
+
+        boolean tryAcquire(String key, long now) {
+            int h = key.hashCode();
+            Stripe stripe = stripes[(h ^ (h >>> 16)) & mask];
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket == null) {
+                    bucket = new Bucket(capacity, now);
+                    stripe.put(key, bucket);
+                } else {
+                    bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+                    bucket.updatedAt = now;
+                }
+                if (bucket.tokens < 1d) {
+                    return false;
+                }
+                bucket.tokens -= 1d;
+                return true;
+            }
+        }
+
+        void evictIdle(long now) {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    Iterator<Bucket> it = stripe.values().iterator();
+                    while (it.hasNext()) {
+                        if (now - it.next().updatedAt < nanosToFull) {
+                            break;
+                        }
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.it342.timesheets.security;
+
+import com.it342.timesheets.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on a small, core-sized pool instead of on request threads.
+ * <p>
+ * The queue is bounded and full submissions are refused straight away, so at
+ * most {@code threads + queue-capacity} request threads can ever be waiting on
+ * a hash; everyone else gets a 503 with Retry-After and the remaining Tomcat
+ * workers stay free for clock-in and dashboard traffic.
+ */
+@Component
+public class PasswordHashExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    public PasswordHashExecutor(PasswordEncoder passwordEncoder,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.auth.hash.threads:0}") int threads,
+                                @Value("${app.auth.hash.queue-capacity:64}") int queueCapacity,
+                                @Value("${app.auth.hash.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("auth.password.hash.pool.size", executor, ThreadPoolExecutor::getMaximumPoolSize).register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String passwordHash) {
+        Supplier<Boolean> check = () -> passwordEncoder.matches(rawPassword, passwordHash);
+        return submit(() -> matchesTimer.record(check));
+    }
+
+    /**
+     * Hashes a batch of passwords in parallel. The batch is cut into at most
+     * half as many slices as there are hashing threads, so interactive logins
+     * keep the other half of the pool while a bulk import runs.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int size = rawPasswords.size();
+        String[] hashes = new String[size];
+        int slices = Math.min(size, Math.max(1, executor.getMaximumPoolSize() / 2));
+        List<Future<Void>> futures = new ArrayList<>(slices);
+        try {
+            for (int slice = 0; slice < slices; slice++) {
+                int from = (int) ((long) slice * size / slices);
+                int to = (int) ((long) (slice + 1) * size / slices);
+                futures.add(enqueue(() -> {
+                    for (int i = from; i < to; i++) {
+                        CharSequence raw = rawPasswords.get(i);
+                        hashes[i] = encodeTimer.record(() -> passwordEncoder.encode(raw));
+                    }
+                    return null;
+                }));
+            }
+            futures.forEach(this::await);
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return Arrays.asList(hashes);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        return await(enqueue(task));
+    }
+
+    private <T> Future<T> enqueue(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceUnavailableException("Server is busy, please retry", retryAfterSeconds);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
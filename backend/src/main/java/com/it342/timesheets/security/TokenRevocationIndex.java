@@ -0,0 +1,98 @@
+package com.it342.timesheets.security;
+
+import com.it342.timesheets.repository.UserRepository;
+import com.it342.timesheets.repository.UserSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process view of which tokens and accounts may no longer authenticate, so
+ * the JWT filter can reject them without a database round trip.
+ * <p>
+ * Three kinds of entries are kept: digests of logged-out tokens, per-user
+ * cut-offs for tokens superseded by a newer login, and disabled user ids.
+ * Token entries are dropped once every token they cover has passed its exp.
+ */
+@Component
+public class TokenRevocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationIndex.class);
+
+    private final UserRepository userRepository;
+    private final UserSessionRepository sessionRepository;
+    private final long tokenLifetimeMs;
+
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, IssuedBefore> sessionCutoffs = new ConcurrentHashMap<>();
+    private final Set<Integer> disabledUsers = ConcurrentHashMap.newKeySet();
+
+    public TokenRevocationIndex(UserRepository userRepository,
+                                UserSessionRepository sessionRepository,
+                                JwtUtil jwtUtil) {
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.tokenLifetimeMs = jwtUtil.getExpirationMs();
+    }
+
+    @PostConstruct
+    public void load() {
+        disabledUsers.addAll(userRepository.findDisabledUserIds());
+
+        LocalDateTime issuedAfter = LocalDateTime.now().minus(Duration.ofMillis(tokenLifetimeMs));
+        for (Object[] row : sessionRepository.findInactiveTokensCreatedAfter(issuedAfter)) {
+            String token = (String) row[0];
+            long createdAtMs = ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            revokedTokens.put(JwtUtil.digest(token), createdAtMs + tokenLifetimeMs);
+        }
+        log.info("Loaded {} revoked tokens and {} disabled users", revokedTokens.size(), disabledUsers.size());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (disabledUsers.contains(token.userId()) || revokedTokens.containsKey(token.digest())) {
+            return true;
+        }
+        IssuedBefore cutoff = sessionCutoffs.get(token.userId());
+        return cutoff != null && token.issuedAt().getEpochSecond() < cutoff.epochSecond();
+    }
+
+    public void revokeToken(VerifiedToken token) {
+        revokedTokens.put(token.digest(), token.expiresAt().toEpochMilli());
+    }
+
+    /**
+     * Revokes every token of the user issued before the given instant. JWT
+     * issue times have second precision, so tokens from the same second survive.
+     */
+    public void revokeTokensIssuedBefore(Integer userId, Instant issuedAt) {
+        long expiresAtMs = issuedAt.toEpochMilli() + tokenLifetimeMs;
+        sessionCutoffs.merge(userId, new IssuedBefore(issuedAt.getEpochSecond(), expiresAtMs),
+                (current, next) -> next.epochSecond() > current.epochSecond() ? next : current);
+    }
+
+    public boolean isUserDisabled(Integer userId) {
+        return disabledUsers.contains(userId);
+    }
+
+    public void disableUser(Integer userId) {
+        disabledUsers.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-sweep-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAtMs -> expiresAtMs <= now);
+        sessionCutoffs.values().removeIf(cutoff -> cutoff.expiresAtMs() <= now);
+    }
+
+    private record IssuedBefore(long epochSecond, long expiresAtMs) {}
+}
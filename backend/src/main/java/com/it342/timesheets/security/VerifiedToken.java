@@ -0,0 +1,14 @@
+package com.it342.timesheets.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * The digest identifies the token without keeping the raw string around.
+ */
+public record VerifiedToken(String digest, Integer userId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -4,16 +4,20 @@ import com.it342.timesheets.dto.*;
 import com.it342.timesheets.entity.Employee;
 import com.it342.timesheets.entity.User;
 import com.it342.timesheets.entity.UserRole;
-import com.it342.timesheets.entity.UserSession;
 import com.it342.timesheets.repository.EmployeeRepository;
 import com.it342.timesheets.repository.UserRepository;
 import com.it342.timesheets.repository.UserSessionRepository;
+import com.it342.timesheets.exception.TooManyRequestsException;
 import com.it342.timesheets.security.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.it342.timesheets.security.LoginRateLimiter;
+import com.it342.timesheets.security.PasswordHashExecutor;
+import com.it342.timesheets.security.TokenRevocationIndex;
+import com.it342.timesheets.security.VerifiedToken;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -24,19 +28,40 @@ public class AuthService {
     private final UserRepository userRepository;
     private final EmployeeRepository employeeRepository;
     private final UserSessionRepository sessionRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashExecutor passwordHasher;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationIndex revocationIndex;
+    private final LoginBookkeepingBuffer loginBookkeeping;
+    private final SessionService sessionService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final UserProfileCache userProfileCache;
+    private final EmployerDirectory employerDirectory;
+    private final UserUniquenessFilter uniquenessFilter;
 
     public AuthService(UserRepository userRepository,
                        EmployeeRepository employeeRepository,
                        UserSessionRepository sessionRepository,
-                       PasswordEncoder passwordEncoder,
-                       JwtUtil jwtUtil) {
+                       PasswordHashExecutor passwordHasher,
+                       JwtUtil jwtUtil,
+                       TokenRevocationIndex revocationIndex,
+                       LoginBookkeepingBuffer loginBookkeeping,
+                       SessionService sessionService,
+                       LoginRateLimiter loginRateLimiter,
+                       UserProfileCache userProfileCache,
+                       EmployerDirectory employerDirectory,
+                       UserUniquenessFilter uniquenessFilter) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.sessionRepository = sessionRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
+        this.revocationIndex = revocationIndex;
+        this.loginBookkeeping = loginBookkeeping;
+        this.sessionService = sessionService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.userProfileCache = userProfileCache;
+        this.employerDirectory = employerDirectory;
+        this.uniquenessFilter = uniquenessFilter;
     }
 
     public AuthResponse register(RegisterRequest request) {
@@ -44,10 +69,10 @@ public class AuthService {
         String email = request.getEmail().trim().toLowerCase();
         String roleInput = request.getRole() == null ? "" : request.getRole().trim().toUpperCase();
 
-        if (userRepository.existsByUsername(username)) {
+        if (uniquenessFilter.usernameExists(username)) {
             throw new RuntimeException("User already exists");
         }
-        if (userRepository.existsByEmail(email)) {
+        if (uniquenessFilter.emailExists(email)) {
             throw new RuntimeException("Email already exists");
         }
 
@@ -61,7 +86,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHasher.encode(request.getPassword()));
         user.setRole(role);
 
         if (role == UserRole.EMPLOYEE) {
@@ -77,23 +102,43 @@ public class AuthService {
             user.setEmployer(employer);
         }
 
-        user = userRepository.save(user);
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // The filter can miss users registered concurrently or on another node.
+            if (userRepository.existsByUsername(username)) {
+                throw new RuntimeException("User already exists");
+            }
+            if (userRepository.existsByEmail(email)) {
+                throw new RuntimeException("Email already exists");
+            }
+            throw e;
+        }
+        uniquenessFilter.recordUser(user.getUsername(), user.getEmail());
+        userProfileCache.evict(user.getUserId());
+        if (role == UserRole.EMPLOYER) {
+            employerDirectory.add(toUserResponse(user));
+        }
 
         if (role == UserRole.EMPLOYEE) {
             Employee employee = new Employee();
             employee.setEmployeeName(user.getUsername());
             employee.setCreatedByUser(user.getEmployer());
+            employee.setUser(user);
             employeeRepository.save(employee);
         }
 
         String token = jwtUtil.generateToken(user.getUserId());
-        saveSession(user.getUserId(), token);
+        sessionService.startSession(user, token);
 
         return new AuthResponse(token, toUserResponse(user));
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String remoteAddress) {
         String input = request.getUsername().trim();
+        if (!loginRateLimiter.tryAcquire(input.toLowerCase(Locale.ROOT), remoteAddress)) {
+            throw TooManyRequestsException.INSTANCE;
+        }
         Optional<User> userOpt = userRepository.findByUsernameOrEmail(input, input);
 
         if (userOpt.isEmpty()) {
@@ -101,63 +146,48 @@ public class AuthService {
         }
 
         User user = userOpt.get();
-        if (!user.getIsActive()) {
+        if (!user.getIsActive() || revocationIndex.isUserDisabled(user.getUserId())) {
             throw new RuntimeException("Account is disabled");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            user.setFailedAttempts((user.getFailedAttempts() == null ? 0 : user.getFailedAttempts()) + 1);
-            if (user.getFailedAttempts() >= MAX_FAILED_ATTEMPTS) {
-                user.setIsActive(false);
-                userRepository.save(user);
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
+            int failedAttempts = loginBookkeeping.recordFailure(user.getUserId(), user.getFailedAttempts());
+            if (failedAttempts >= MAX_FAILED_ATTEMPTS) {
+                revocationIndex.disableUser(user.getUserId());
+                userRepository.disableUser(user.getUserId(), LocalDateTime.now());
+                userProfileCache.evict(user.getUserId());
                 throw new RuntimeException("Account locked");
             }
-            userRepository.save(user);
             throw new RuntimeException("Invalid credentials");
         }
 
+        LocalDateTime loginAt = LocalDateTime.now();
         user.setFailedAttempts(0);
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        user.setLastLogin(loginAt);
+        loginBookkeeping.recordSuccess(user.getUserId(), loginAt);
 
         String token = jwtUtil.generateToken(user.getUserId());
-        saveSession(user.getUserId(), token);
+        sessionService.startSession(user, token);
+        revocationIndex.revokeTokensIssuedBefore(user.getUserId(), jwtUtil.verifyToken(token).issuedAt());
 
         return new AuthResponse(token, toUserResponse(user));
     }
 
     public void logout(String token) {
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+        if (verified != null) {
+            revocationIndex.revokeToken(verified);
+        }
         sessionRepository.findBySessionToken(token).ifPresent(session -> {
             session.setIsActive(false);
             sessionRepository.save(session);
         });
     }
 
-    public UserResponse getCurrentUser(String token) {
-        if (!jwtUtil.validateToken(token)) {
-            throw new RuntimeException("Invalid or expired token");
-        }
-        Integer userId = jwtUtil.getUserIdFromToken(token);
-        return userRepository.findById(userId)
+    public UserResponse getCurrentUser(Integer userId) {
+        return userProfileCache.get(userId, id -> userRepository.findWithEmployerByUserId(id)
                 .map(this::toUserResponse)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
-    private void saveSession(Integer userId, String token) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<UserSession> activeSessions = sessionRepository.findByUser_UserIdAndIsActiveTrue(userId);
-        activeSessions.forEach(existing -> existing.setIsActive(false));
-        if (!activeSessions.isEmpty()) {
-            sessionRepository.saveAll(activeSessions);
-        }
-
-        UserSession session = new UserSession();
-        session.setUser(user);
-        session.setSessionToken(token);
-        session.setExpiresAt(LocalDateTime.now().plusHours(24));
-        sessionRepository.save(session);
+                .orElseThrow(() -> new RuntimeException("User not found")));
     }
 
     private UserResponse toUserResponse(User user) {
@@ -167,10 +197,6 @@ public class AuthService {
     }
 
     public java.util.List<UserResponse> searchEmployers(String query) {
-        String normalized = query == null ? "" : query.trim();
-        return userRepository.findTop10ByRoleAndUsernameContainingIgnoreCaseOrderByUsernameAsc(UserRole.EMPLOYER, normalized)
-                .stream()
-                .map(this::toUserResponse)
-                .toList();
+        return employerDirectory.search(query);
     }
 }
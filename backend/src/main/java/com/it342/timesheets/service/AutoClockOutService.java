@@ -0,0 +1,177 @@
+package com.it342.timesheets.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clocks employees out when a shift reaches {@code app.timesheets.auto-clock-out.max-shift-hours}.
+ * <p>
+ * Every open shift holds a timer in a {@link HashedTimingWheel}, armed on
+ * clock-in and cancelled on clock-out, and the wheel is filled from the
+ * presence registry at startup, so finding expired shifts never scans
+ * timesheet_records. Expired shifts are closed at clock-in plus the maximum
+ * length, in batches of {@code batch-size} with the same conditional update
+ * the batch ingestion uses; a shift closed in the meantime is skipped. If a
+ * batch fails, it and every batch after it are re-armed for the next tick.
+ * Closed shifts go through the same totals, rollups, event log and
+ * {@link ClockEvent} listeners as a manual clock-out.
+ */
+@Service
+public class AutoClockOutService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutoClockOutService.class);
+
+    private final PresenceRegistry presenceRegistry;
+    private final TimesheetRollupService rollupService;
+    private final ClockEventLog clockEventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration maxShift;
+    private final int batchSize;
+    private final HashedTimingWheel<Integer, OpenShift> wheel;
+    private final Counter closedShifts;
+
+    public AutoClockOutService(PresenceRegistry presenceRegistry,
+                               TimesheetRollupService rollupService,
+                               ClockEventLog clockEventLog,
+                               ApplicationEventPublisher eventPublisher,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.timesheets.auto-clock-out.enabled:true}") boolean enabled,
+                               @Value("${app.timesheets.auto-clock-out.max-shift-hours:16}") long maxShiftHours,
+                               @Value("${app.timesheets.auto-clock-out.tick-ms:60000}") long tickMillis,
+                               @Value("${app.timesheets.auto-clock-out.wheel-size:1024}") int wheelSize,
+                               @Value("${app.timesheets.auto-clock-out.batch-size:500}") int batchSize) {
+        this.presenceRegistry = presenceRegistry;
+        this.rollupService = rollupService;
+        this.clockEventLog = clockEventLog;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxShift = Duration.ofHours(maxShiftHours);
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        this.closedShifts = Counter.builder("timesheets.auto.clock.out").register(meterRegistry);
+        Gauge.builder("timesheets.auto.clock.out.armed", wheel, HashedTimingWheel::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        presenceRegistry.forEachOpenShift((employerId, employeeId, shift) ->
+                arm(new OpenShift(shift.recordId(), employerId, employeeId, shift.employeeName(), shift.clockInAt())));
+        log.info("Armed auto clock-out for {} open shifts", wheel.size());
+    }
+
+    @TransactionalEventListener
+    public void onClockEvent(ClockEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ClockEvent.Type.CLOCK_IN) {
+            arm(new OpenShift(event.recordId(), event.employerId(), event.employeeId(),
+                    event.employeeName(), event.clockInAt()));
+        } else {
+            wheel.cancel(event.recordId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.timesheets.auto-clock-out.tick-ms:60000}")
+    public void closeExpired() {
+        if (!enabled) {
+            return;
+        }
+        List<OpenShift> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        int closed = 0;
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<OpenShift> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                closed += transactionTemplate.execute(status -> closeBatch(batch));
+            } catch (RuntimeException e) {
+                // Usually the database is unreachable, so the rest waits for the next tick too.
+                List<OpenShift> remaining = expired.subList(from, expired.size());
+                log.warn("Auto clock-out failed, re-armed {} shifts for the next tick", remaining.size(), e);
+                remaining.forEach(this::arm);
+                break;
+            }
+        }
+        closedShifts.increment(closed);
+        log.info("Auto clocked out {} of {} expired shifts", closed, expired.size());
+    }
+
+    private int closeBatch(List<OpenShift> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(ClockEventIngestionService.CLOSE_RECORD_SQL, batch, batch.size(), (ps, shift) -> {
+            LocalDateTime clockOutAt = shift.clockInAt().plus(maxShift);
+            ps.setTimestamp(1, Timestamp.valueOf(clockOutAt));
+            ps.setBigDecimal(2, TimesheetService.hoursBetween(shift.clockInAt(), clockOutAt));
+            ps.setTimestamp(3, now);
+            ps.setInt(4, shift.recordId());
+        });
+
+        List<ClockEvent> events = new ArrayList<>();
+        List<TimesheetRollupService.ClosedShift> closed = new ArrayList<>();
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                OpenShift shift = batch.get(i++);
+                if (count == 0) {
+                    continue;
+                }
+                LocalDateTime clockOutAt = shift.clockInAt().plus(maxShift);
+                BigDecimal hours = TimesheetService.hoursBetween(shift.clockInAt(), clockOutAt);
+                closed.add(new TimesheetRollupService.ClosedShift(shift.employerId(), shift.employeeId(),
+                        shift.clockInAt(), clockOutAt));
+                events.add(ClockEvent.clockOut(shift.employerId(), shift.employeeId(), shift.employeeName(),
+                        shift.recordId(), shift.clockInAt(), clockOutAt, hours));
+            }
+        }
+
+        ClockEventIngestionService.addHours(jdbcTemplate, events);
+        rollupService.recordShifts(closed);
+        clockEventLog.appendAll(events);
+        events.forEach(eventPublisher::publishEvent);
+        return events.size();
+    }
+
+    int armed() {
+        return wheel.size();
+    }
+
+    private void arm(OpenShift shift) {
+        long deadline = shift.clockInAt().plus(maxShift).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(shift.recordId(), shift, deadline);
+    }
+
+    private record OpenShift(Integer recordId, Integer employerId, Integer employeeId,
+                             String employeeName, LocalDateTime clockInAt) {}
+}
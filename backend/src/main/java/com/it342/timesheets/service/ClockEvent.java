@@ -0,0 +1,31 @@
+package com.it342.timesheets.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link TimesheetService} when a shift opens or closes. Listeners
+ * that keep in-memory state should react after commit so they never see a
+ * change that was rolled back.
+ */
+public record ClockEvent(Type type,
+                         Integer employerId,
+                         Integer employeeId,
+                         String employeeName,
+                         Integer recordId,
+                         LocalDateTime clockInAt,
+                         LocalDateTime clockOutAt,
+                         BigDecimal hoursWorked) {
+
+    public enum Type { CLOCK_IN, CLOCK_OUT }
+
+    public static ClockEvent clockIn(Integer employerId, Integer employeeId, String employeeName,
+                                     Integer recordId, LocalDateTime clockInAt) {
+        return new ClockEvent(Type.CLOCK_IN, employerId, employeeId, employeeName, recordId, clockInAt, null, null);
+    }
+
+    public static ClockEvent clockOut(Integer employerId, Integer employeeId, String employeeName, Integer recordId,
+                                      LocalDateTime clockInAt, LocalDateTime clockOutAt, BigDecimal hoursWorked) {
+        return new ClockEvent(Type.CLOCK_OUT, employerId, employeeId, employeeName, recordId, clockInAt, clockOutAt, hoursWorked);
+    }
+}
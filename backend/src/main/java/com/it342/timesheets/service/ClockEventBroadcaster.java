@@ -0,0 +1,286 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockEventMessage;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.exception.ServiceUnavailableException;
+import com.it342.timesheets.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed {@link ClockEvent}s to employers' live boards over SSE.
+ * <p>
+ * Connections are async servlet responses, so an idle subscriber holds no
+ * thread. Each subscriber has a bounded buffer drained by a small shared
+ * sender pool, one drain at a time per subscriber so its events stay in
+ * order. A subscriber whose buffer overflows is disconnected rather than
+ * allowed to hold events back; EventSource clients reconnect and can
+ * re-read the dashboard. Heartbeat comments keep proxies from closing
+ * quiet connections and surface dead ones.
+ * <p>
+ * SseEmitter writes block while the client's socket is full. The heartbeat
+ * disconnects a subscriber whose drain has run longer than
+ * {@code app.events.sse.stall-ms}, and the pool gets one extra thread while
+ * that drain's thread is still stuck in the write, so other subscribers keep
+ * their senders. Emitters are completed on the sender thread, because
+ * completing one blocks while a send to it is in progress.
+ */
+@Component
+public class ClockEventBroadcaster {
+
+    private static final Object HEARTBEAT = new Object();
+    private static final long IDLE = Long.MIN_VALUE;
+
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<Integer, Set<Subscriber>> byEmployer = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor sender;
+    private final int senderThreads;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long stallNanos;
+    private final int maxSubscribers;
+    private final Counter evictions;
+    private final Counter stalls;
+    private int stuckSenders;
+
+    public ClockEventBroadcaster(UserRepository userRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.events.sse.sender-threads:2}") int senderThreads,
+                                 @Value("${app.events.sse.buffer-size:256}") int bufferSize,
+                                 @Value("${app.events.sse.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${app.events.sse.stall-ms:10000}") long stallMs,
+                                 @Value("${app.events.sse.max-subscribers:10000}") int maxSubscribers) {
+        this.userRepository = userRepository;
+        this.senderThreads = senderThreads;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMs);
+        this.maxSubscribers = maxSubscribers;
+        this.sender = new ThreadPoolExecutor(
+                senderThreads, senderThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("clock-events-sse-"));
+
+        this.evictions = Counter.builder("events.sse.evicted").register(meterRegistry);
+        this.stalls = Counter.builder("events.sse.stalled").register(meterRegistry);
+        Gauge.builder("events.sse.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Integer userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can subscribe to events");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live connections", 30);
+        }
+
+        SseEmitter emitter = createEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        byEmployer.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Flushes the response headers so the client sees the stream open.
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onClockEvent(ClockEvent event) {
+        Set<Subscriber> subscribers = byEmployer.get(event.employerId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        boolean clockIn = event.type() == ClockEvent.Type.CLOCK_IN;
+        ClockEventMessage message = new ClockEventMessage(
+                clockIn ? "clock_in" : "clock_out",
+                event.employeeId(),
+                event.employeeName(),
+                event.recordId(),
+                clockIn ? event.clockInAt() : event.clockOutAt(),
+                event.hoursWorked());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        heartbeat(System.nanoTime());
+    }
+
+    void heartbeat(long now) {
+        for (Set<Subscriber> subscribers : byEmployer.values()) {
+            for (Subscriber subscriber : subscribers) {
+                long started = subscriber.drainStartedAt;
+                if (started != IDLE && now - started > stallNanos) {
+                    subscriber.evictStalled();
+                } else {
+                    subscriber.offer(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // Keeps senderThreads threads free for healthy subscribers while stalled drains hold others.
+    private synchronized void adjustStuckSenders(int delta) {
+        stuckSenders += delta;
+        int size = senderThreads + stuckSenders;
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byEmployer.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+        sender.shutdown();
+    }
+
+    private final class Subscriber {
+
+        private final Integer employerId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private final AtomicBoolean senderReleased = new AtomicBoolean();
+        private volatile long drainStartedAt = IDLE;
+
+        Subscriber(Integer employerId, SseEmitter emitter) {
+            this.employerId = employerId;
+            this.emitter = emitter;
+        }
+
+        void offer(Object item) {
+            if (removed.get()) {
+                return;
+            }
+            if (!buffer.offer(item)) {
+                evictions.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            drainStartedAt = System.nanoTime();
+            try {
+                Object item;
+                while (!removed.get() && (item = buffer.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove();
+            } finally {
+                drainStartedAt = IDLE;
+                if (stalled.get()) {
+                    releaseSender();
+                }
+                if (removed.get()) {
+                    complete();
+                }
+                draining.set(false);
+            }
+            // An offer may have landed after the last poll but before the flag was cleared.
+            if (!removed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                ClockEventMessage message = (ClockEventMessage) item;
+                emitter.send(SseEmitter.event().name(message.getType()).data(message, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        void evictStalled() {
+            if (!stalled.compareAndSet(false, true)) {
+                return;
+            }
+            stalls.increment();
+            remove();
+            adjustStuckSenders(1);
+            // The drain may have returned before it could see the flag.
+            if (drainStartedAt == IDLE) {
+                releaseSender();
+            }
+        }
+
+        private void releaseSender() {
+            if (senderReleased.compareAndSet(false, true)) {
+                adjustStuckSenders(-1);
+            }
+        }
+
+        void close() {
+            remove();
+            // Completes on a sender thread, after any send in progress.
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                Set<Subscriber> subscribers = byEmployer.get(employerId);
+                if (subscribers != null) {
+                    subscribers.remove(this);
+                }
+                buffer.clear();
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockEventBatchResponse;
+import com.it342.timesheets.dto.ClockEventRequest;
+import com.it342.timesheets.dto.ClockEventResult;
+import com.it342.timesheets.entity.Employee;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.EmployeeRepository;
+import com.it342.timesheets.repository.TimesheetRecordRepository;
+import com.it342.timesheets.repository.UserRepository;
+import com.it342.timesheets.service.ClockEventPlanner.Shift;
+import com.it342.timesheets.service.ClockEventPlanner.Step;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Applies batches of timestamped clock events from kiosks and devices that
+ * were offline.
+ * <p>
+ * Events are checked individually, then grouped by employee and applied in
+ * submitted order per employee, as planned by {@link ClockEventPlanner}:
+ * none may be earlier than the previous event or the end of the employee's
+ * last closed shift, and they must alternate with the employee's current
+ * state. Employees are
+ * packed into chunks, one transaction each, so an employee's events never
+ * span two chunks. Inside a chunk the k-th event of every employee forms
+ * one phase, applied with one JDBC batch of inserts (clock-ins) and one of
+ * conditional updates (clock-outs). If a clock-out finds its record already
+ * closed, or a clock-in hits the open-shift key, the chunk is rolled back
+ * and its events are reported as conflicts to retry.
+ * <p>
+ * Applied events feed the same places as single clock actions: hours
+ * totals, rollups, the clock event log and {@link ClockEvent} listeners.
+ */
+@Service
+public class ClockEventIngestionService {
+
+    private static final String INSERT_RECORD_SQL = """
+            INSERT INTO timesheet_records (employee_id, created_by_user_id, clock_in_time, status, created_at, updated_at)
+            VALUES (?, ?, ?, 'clocked_in', ?, ?)""";
+
+    static final String CLOSE_RECORD_SQL = """
+            UPDATE timesheet_records
+            SET clock_out_time = ?, hours_worked = ?, status = 'clocked_out', updated_at = ?
+            WHERE record_id = ? AND status = 'clocked_in'""";
+
+    static final String ADD_HOURS_SQL = """
+            INSERT INTO employee_hours_totals (employee_id, total_hours, record_count, updated_at)
+            VALUES (?, ?, ?, ?) AS new
+            ON DUPLICATE KEY UPDATE total_hours = total_hours + new.total_hours,
+                                    record_count = record_count + new.record_count,
+                                    updated_at = new.updated_at""";
+
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final UserRepository userRepository;
+    private final EmployeeRepository employeeRepository;
+    private final TimesheetRecordRepository timesheetRecordRepository;
+    private final TimesheetRollupService rollupService;
+    private final ClockEventLog clockEventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int maxEvents;
+    private final int chunkSize;
+
+    public ClockEventIngestionService(UserRepository userRepository,
+                                      EmployeeRepository employeeRepository,
+                                      TimesheetRecordRepository timesheetRecordRepository,
+                                      TimesheetRollupService rollupService,
+                                      ClockEventLog clockEventLog,
+                                      ApplicationEventPublisher eventPublisher,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      Validator validator,
+                                      @Value("${app.timesheets.batch.max-events:5000}") int maxEvents,
+                                      @Value("${app.timesheets.batch.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.employeeRepository = employeeRepository;
+        this.timesheetRecordRepository = timesheetRecordRepository;
+        this.rollupService = rollupService;
+        this.clockEventLog = clockEventLog;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.maxEvents = maxEvents;
+        this.chunkSize = chunkSize;
+    }
+
+    public ClockEventBatchResponse ingest(Integer employerId, List<ClockEventRequest> events) {
+        User employer = userRepository.findById(employerId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (employer.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can submit clock events");
+        }
+        if (events == null || events.isEmpty()) {
+            throw new RuntimeException("Batch contains no events");
+        }
+        if (events.size() > maxEvents) {
+            throw new RuntimeException("Batch is limited to " + maxEvents + " events");
+        }
+
+        Map<Integer, String> employeeNames = new HashMap<>();
+        for (Employee employee : employeeRepository.findByCreatedByUser_UserIdAndIsActiveTrueOrderByEmployeeNameAsc(employerId)) {
+            employeeNames.put(employee.getEmployeeId(), employee.getEmployeeName());
+        }
+
+        ClockEventResult[] results = new ClockEventResult[events.size()];
+        LocalDateTime latestAllowed = LocalDateTime.now().plus(CLOCK_SKEW);
+        Map<Integer, List<Integer>> byEmployee = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            ClockEventRequest event = events.get(i);
+            if (event == null) {
+                results[i] = ClockEventResult.rejected(i, null, null, "Event is empty");
+                continue;
+            }
+            Set<ConstraintViolation<ClockEventRequest>> violations = validator.validate(event);
+            if (!violations.isEmpty()) {
+                results[i] = reject(i, event, violations.iterator().next().getMessage());
+            } else if (!employeeNames.containsKey(event.getEmployeeId())) {
+                results[i] = reject(i, event, "Employee record not found");
+            } else if (event.getOccurredAt().isAfter(latestAllowed)) {
+                results[i] = reject(i, event, "Event time is in the future");
+            } else {
+                byEmployee.computeIfAbsent(event.getEmployeeId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Integer> chunk = new ArrayList<>();
+        int chunkEvents = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : byEmployee.entrySet()) {
+            if (chunkEvents > 0 && chunkEvents + entry.getValue().size() > chunkSize) {
+                applyChunk(employerId, chunk, byEmployee, employeeNames, events, results);
+                chunk = new ArrayList<>();
+                chunkEvents = 0;
+            }
+            chunk.add(entry.getKey());
+            chunkEvents += entry.getValue().size();
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(employerId, chunk, byEmployee, employeeNames, events, results);
+        }
+
+        List<ClockEventResult> report = Arrays.asList(results);
+        int applied = (int) report.stream().filter(result -> "applied".equals(result.getStatus())).count();
+        return new ClockEventBatchResponse(applied, report.size() - applied, report);
+    }
+
+    private void applyChunk(Integer employerId,
+                            List<Integer> employeeIds,
+                            Map<Integer, List<Integer>> byEmployee,
+                            Map<Integer, String> employeeNames,
+                            List<ClockEventRequest> events,
+                            ClockEventResult[] results) {
+        Map<Integer, ClockEventResult> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status ->
+                    applyInTransaction(employerId, employeeIds, byEmployee, employeeNames, events));
+        } catch (DataAccessException | ConflictException e) {
+            for (Integer employeeId : employeeIds) {
+                for (Integer index : byEmployee.get(employeeId)) {
+                    results[index] = reject(index, events.get(index), "Conflicts with a concurrent clock action, please retry");
+                }
+            }
+            return;
+        }
+        outcomes.forEach((index, result) -> results[index] = result);
+    }
+
+    private Map<Integer, ClockEventResult> applyInTransaction(Integer employerId,
+                                                              List<Integer> employeeIds,
+                                                              Map<Integer, List<Integer>> byEmployee,
+                                                              Map<Integer, String> employeeNames,
+                                                              List<ClockEventRequest> events) {
+        Map<Integer, ClockEventPlanner.EmployeeState> states = new HashMap<>();
+        for (Object[] row : timesheetRecordRepository.findLastClockOutsByEmployeeIds(employeeIds)) {
+            states.put((Integer) row[0], new ClockEventPlanner.EmployeeState(null, null, (LocalDateTime) row[1]));
+        }
+        for (Object[] row : timesheetRecordRepository.findOpenShiftsByEmployeeIds(employeeIds)) {
+            ClockEventPlanner.EmployeeState closed = states.get((Integer) row[0]);
+            states.put((Integer) row[0], new ClockEventPlanner.EmployeeState((Integer) row[1], (LocalDateTime) row[2],
+                    closed == null ? null : closed.lastClockOutAt()));
+        }
+
+        ClockEventPlanner.Plan plan = ClockEventPlanner.plan(employeeIds, byEmployee, events, states);
+        Map<Integer, ClockEventResult> outcomes = new HashMap<>();
+        plan.rejected().forEach((index, error) -> outcomes.put(index, reject(index, events.get(index), error)));
+
+        List<ClockEvent> applied = new ArrayList<>();
+        List<TimesheetRollupService.ClosedShift> closed = new ArrayList<>();
+        for (List<Step> phase : plan.phases()) {
+            List<Step> clockIns = phase.stream().filter(step -> step.clockOutAt() == null).toList();
+            List<Step> clockOuts = phase.stream().filter(step -> step.clockOutAt() != null).toList();
+            insertRecords(employerId, clockIns);
+            closeRecords(clockOuts);
+
+            for (Step step : phase) {
+                Shift shift = step.shift();
+                String name = employeeNames.get(shift.employeeId);
+                if (step.clockOutAt() == null) {
+                    applied.add(ClockEvent.clockIn(employerId, shift.employeeId, name, shift.recordId, shift.clockInAt));
+                } else {
+                    BigDecimal hours = TimesheetService.hoursBetween(shift.clockInAt, step.clockOutAt());
+                    closed.add(new TimesheetRollupService.ClosedShift(employerId, shift.employeeId, shift.clockInAt, step.clockOutAt()));
+                    applied.add(ClockEvent.clockOut(employerId, shift.employeeId, name, shift.recordId,
+                            shift.clockInAt, step.clockOutAt(), hours));
+                }
+                ClockEventRequest event = events.get(step.index());
+                outcomes.put(step.index(), ClockEventResult.applied(step.index(), shift.employeeId, event.getType(), shift.recordId));
+            }
+        }
+
+        addHours(jdbcTemplate, applied.stream().filter(event -> event.type() == ClockEvent.Type.CLOCK_OUT).toList());
+        rollupService.recordShifts(closed);
+        clockEventLog.appendAll(applied);
+        applied.forEach(eventPublisher::publishEvent);
+        return outcomes;
+    }
+
+    private void insertRecords(Integer employerId, List<Step> clockIns) {
+        if (clockIns.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_RECORD_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Shift shift = clockIns.get(i).shift();
+                        ps.setInt(1, shift.employeeId);
+                        ps.setInt(2, employerId);
+                        ps.setTimestamp(3, Timestamp.valueOf(shift.clockInAt));
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return clockIns.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < clockIns.size(); i++) {
+            clockIns.get(i).shift().recordId = ((Number) generated.get(i).values().iterator().next()).intValue();
+        }
+    }
+
+    private void closeRecords(List<Step> clockOuts) {
+        if (clockOuts.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(CLOSE_RECORD_SQL, clockOuts, clockOuts.size(), (ps, step) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(step.clockOutAt()));
+            ps.setBigDecimal(2, TimesheetService.hoursBetween(step.shift().clockInAt, step.clockOutAt()));
+            ps.setTimestamp(3, now);
+            ps.setInt(4, step.shift().recordId);
+        });
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new ConflictException();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds clock-outs to employee_hours_totals with one batch of one row per
+     * employee, in employee order so concurrent batches lock rows alike.
+     */
+    static void addHours(JdbcTemplate jdbcTemplate, List<ClockEvent> clockOuts) {
+        if (clockOuts.isEmpty()) {
+            return;
+        }
+        Map<Integer, HoursDelta> byEmployee = new TreeMap<>();
+        for (ClockEvent event : clockOuts) {
+            byEmployee.merge(event.employeeId(), new HoursDelta(event.hoursWorked(), 1, event.clockOutAt()), HoursDelta::plus);
+        }
+        jdbcTemplate.batchUpdate(ADD_HOURS_SQL, new ArrayList<>(byEmployee.entrySet()), byEmployee.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getKey());
+            ps.setBigDecimal(2, entry.getValue().hours());
+            ps.setInt(3, entry.getValue().records());
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getValue().updatedAt()));
+        });
+    }
+
+    private static ClockEventResult reject(int index, ClockEventRequest event, String error) {
+        return ClockEventResult.rejected(index, event.getEmployeeId(), event.getType(), error);
+    }
+
+    private record HoursDelta(BigDecimal hours, int records, LocalDateTime updatedAt) {
+        HoursDelta plus(HoursDelta other) {
+            return new HoursDelta(hours.add(other.hours), records + other.records,
+                    updatedAt.isAfter(other.updatedAt) ? updatedAt : other.updatedAt);
+        }
+    }
+
+    // A record changed under the batch; rolls the chunk back.
+    private static final class ConflictException extends RuntimeException {
+        ConflictException() {
+            super(null, null, false, false);
+        }
+    }
+}
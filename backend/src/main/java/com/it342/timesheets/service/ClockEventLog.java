@@ -0,0 +1,362 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ReplayResponse;
+import com.it342.timesheets.entity.ClockEventEntry;
+import com.it342.timesheets.entity.EmployeeClockSnapshot;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.ClockEventEntryRepository;
+import com.it342.timesheets.repository.EmployeeClockSnapshotRepository;
+import com.it342.timesheets.repository.EmployeeRepository;
+import com.it342.timesheets.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only log of clock events, the source timesheet_records is projected
+ * from.
+ * <p>
+ * Clock-in and clock-out append one row each in the transaction that updates
+ * the projection. Per-employee snapshots fold the log every
+ * {@code app.events.snapshot-interval} events, so an employee's state never
+ * needs more than that many events read on top of its snapshot. The
+ * projection can be rebuilt from the log with
+ * {@link #replay(Integer, Integer, boolean)}, by default starting at the
+ * snapshot. On first start the log is seeded from the existing records in
+ * time order.
+ */
+@Service
+public class ClockEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ClockEventLog.class);
+
+    private static final String SEED_SQL = """
+            INSERT INTO clock_events (employee_id, employer_id, record_id, event_type, occurred_at, recorded_at)
+            SELECT employee_id, employer_id, record_id, event_type, occurred_at, NOW()
+            FROM (SELECT employee_id, created_by_user_id AS employer_id, record_id,
+                         'clock_in' AS event_type, clock_in_time AS occurred_at
+                  FROM timesheet_records
+                  UNION ALL
+                  SELECT employee_id, created_by_user_id, record_id, 'clock_out', clock_out_time
+                  FROM timesheet_records
+                  WHERE status = 'clocked_out') seeded
+            ORDER BY occurred_at, event_type, record_id""";
+
+    private static final String APPEND_SQL = """
+            INSERT INTO clock_events (employee_id, employer_id, record_id, event_type, occurred_at, recorded_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private static final String PROJECT_SQL = """
+            INSERT INTO timesheet_records (record_id, employee_id, created_by_user_id, clock_in_time, clock_out_time,
+                                           hours_worked, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) AS new
+            ON DUPLICATE KEY UPDATE clock_in_time = new.clock_in_time,
+                                    clock_out_time = new.clock_out_time,
+                                    hours_worked = new.hours_worked,
+                                    status = new.status,
+                                    updated_at = new.updated_at""";
+
+    private static final String OPEN_RECORDS_SQL =
+            "SELECT record_id FROM timesheet_records WHERE employee_id = ? AND status = 'clocked_in'";
+
+    private static final int READ_CHUNK = 1000;
+
+    private final ClockEventEntryRepository eventRepository;
+    private final EmployeeClockSnapshotRepository snapshotRepository;
+    private final EmployeeRepository employeeRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int snapshotInterval;
+    private final ConcurrentHashMap<Integer, AtomicInteger> sinceSnapshot = new ConcurrentHashMap<>();
+
+    public ClockEventLog(ClockEventEntryRepository eventRepository,
+                         EmployeeClockSnapshotRepository snapshotRepository,
+                         EmployeeRepository employeeRepository,
+                         UserRepository userRepository,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${app.events.snapshot-interval:50}") int snapshotInterval) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.employeeRepository = employeeRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @PostConstruct
+    public void load() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM clock_events)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            int seeded = jdbcTemplate.update(SEED_SQL);
+            log.info("Seeded clock event log with {} events from timesheet_records", seeded);
+        }
+        for (Object[] row : eventRepository.countEventsSinceSnapshot()) {
+            sinceSnapshot.put(((Number) row[0]).intValue(), new AtomicInteger(((Number) row[1]).intValue()));
+        }
+    }
+
+    /**
+     * Appends an event. Must run in the transaction that applies it to the
+     * projection.
+     */
+    public void append(ClockEvent event) {
+        boolean clockIn = event.type() == ClockEvent.Type.CLOCK_IN;
+        ClockEventEntry entry = new ClockEventEntry();
+        entry.setEmployeeId(event.employeeId());
+        entry.setEmployerId(event.employerId());
+        entry.setRecordId(event.recordId());
+        entry.setEventType(clockIn ? ClockEventEntry.CLOCK_IN : ClockEventEntry.CLOCK_OUT);
+        entry.setOccurredAt(clockIn ? event.clockInAt() : event.clockOutAt());
+        eventRepository.save(entry);
+        countAfterCommit(List.of(event));
+    }
+
+    /**
+     * Appends many events with one JDBC batch, in list order.
+     */
+    public void appendAll(List<ClockEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND_SQL, events, READ_CHUNK, (ps, event) -> {
+            boolean clockIn = event.type() == ClockEvent.Type.CLOCK_IN;
+            ps.setInt(1, event.employeeId());
+            ps.setInt(2, event.employerId());
+            ps.setInt(3, event.recordId());
+            ps.setString(4, clockIn ? ClockEventEntry.CLOCK_IN : ClockEventEntry.CLOCK_OUT);
+            ps.setTimestamp(5, Timestamp.valueOf(clockIn ? event.clockInAt() : event.clockOutAt()));
+            ps.setTimestamp(6, now);
+        });
+        countAfterCommit(events);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.snapshot-sweep-ms:60000}")
+    public void snapshotDue() {
+        sinceSnapshot.forEach((employeeId, count) -> {
+            if (count.get() >= snapshotInterval) {
+                try {
+                    int folded = transactionTemplate.execute(status -> snapshot(employeeId));
+                    count.addAndGet(-folded);
+                } catch (RuntimeException e) {
+                    log.warn("Snapshot of employee {} failed, retrying next sweep", employeeId, e);
+                }
+            }
+        });
+    }
+
+    // Counted only once the events are committed, so a rolled-back append does not bring a snapshot forward.
+    private void countAfterCommit(List<ClockEvent> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(ClockEventLog.this::count);
+            }
+        });
+    }
+
+    private void count(ClockEvent event) {
+        sinceSnapshot.computeIfAbsent(event.employeeId(), id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Rebuilds one employee's timesheet_records rows from the log. Starts at
+     * the employee's snapshot, re-projecting its open shift and every record
+     * with a later event; {@code full} replays the whole log instead. Employee
+     * totals and rollups are rebuilt by their own reconciliation jobs.
+     */
+    public ReplayResponse replay(Integer userId, Integer employeeId, boolean full) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can replay timesheets");
+        }
+        if (!employeeRepository.existsByEmployeeIdAndCreatedByUser_UserId(employeeId, userId)) {
+            throw new RuntimeException("Employee record not found");
+        }
+
+        return transactionTemplate.execute(status -> {
+            Fold fold = full ? new Fold() : snapshotRepository.findById(employeeId)
+                    .map(snapshot -> Fold.from(snapshot, userId))
+                    .orElseGet(Fold::new);
+            int events = readInto(fold, employeeId);
+
+            List<Map.Entry<Integer, Shift>> rows = fold.rows();
+            for (Integer open : jdbcTemplate.queryForList(OPEN_RECORDS_SQL, Integer.class, employeeId)) {
+                if (!fold.shifts.containsKey(open)) {
+                    throw new RuntimeException("Open record conflicts with the clock event log");
+                }
+            }
+            try {
+                project(employeeId, rows);
+            } catch (DataIntegrityViolationException e) {
+                if (TimesheetService.violates(e, "uk_timesheet_records_open_shift")) {
+                    throw new RuntimeException("Open record conflicts with the clock event log");
+                }
+                throw e;
+            }
+            log.info("Replayed {} clock events into {} records for employee {}", events, rows.size(), employeeId);
+            return new ReplayResponse(employeeId, events, rows.size());
+        });
+    }
+
+    // Folds the events after the employee's snapshot into it; returns how many were folded.
+    private int snapshot(Integer employeeId) {
+        EmployeeClockSnapshot snapshot = snapshotRepository.findById(employeeId).orElseGet(() -> {
+            EmployeeClockSnapshot created = new EmployeeClockSnapshot();
+            created.setEmployeeId(employeeId);
+            return created;
+        });
+        Fold fold = Fold.from(snapshot, null);
+        int folded = readInto(fold, employeeId);
+        fold.copyTo(snapshot);
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+        return folded;
+    }
+
+    private int readInto(Fold fold, Integer employeeId) {
+        int read = 0;
+        List<ClockEventEntry> chunk;
+        do {
+            chunk = eventRepository.findByEmployeeIdAndEventIdGreaterThanOrderByEventIdAsc(
+                    employeeId, fold.lastEventId, Limit.of(READ_CHUNK));
+            chunk.forEach(fold::add);
+            read += chunk.size();
+        } while (chunk.size() == READ_CHUNK);
+        return read;
+    }
+
+    private void project(Integer employeeId, List<Map.Entry<Integer, Shift>> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(PROJECT_SQL, rows, READ_CHUNK, (ps, entry) -> {
+            Shift shift = entry.getValue();
+            boolean closed = shift.clockOutAt != null;
+            ps.setInt(1, entry.getKey());
+            ps.setInt(2, employeeId);
+            ps.setInt(3, shift.employerId);
+            ps.setTimestamp(4, Timestamp.valueOf(shift.clockInAt));
+            ps.setTimestamp(5, closed ? Timestamp.valueOf(shift.clockOutAt) : null);
+            ps.setBigDecimal(6, closed ? TimesheetService.hoursBetween(shift.clockInAt, shift.clockOutAt) : null);
+            ps.setString(7, closed ? "clocked_out" : "clocked_in");
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    /**
+     * One employee's state folded over a run of events, starting empty or
+     * from a snapshot, plus the records those events touched.
+     */
+    static final class Fold {
+
+        long lastEventId;
+        long eventCount;
+        long shiftCount;
+        long workedSeconds;
+        Integer openRecordId;
+        LocalDateTime openSince;
+        final Map<Integer, Shift> shifts = new LinkedHashMap<>();
+
+        // The snapshot's open shift is carried in so a later clock-out can close it.
+        static Fold from(EmployeeClockSnapshot snapshot, Integer employerId) {
+            Fold fold = new Fold();
+            fold.lastEventId = snapshot.getLastEventId();
+            fold.eventCount = snapshot.getEventCount();
+            fold.shiftCount = snapshot.getShiftCount();
+            fold.workedSeconds = snapshot.getWorkedSeconds();
+            fold.openRecordId = snapshot.getOpenRecordId();
+            fold.openSince = snapshot.getOpenSince();
+            if (fold.openRecordId != null) {
+                Shift open = new Shift(employerId);
+                open.clockInAt = fold.openSince;
+                fold.shifts.put(fold.openRecordId, open);
+            }
+            return fold;
+        }
+
+        void add(ClockEventEntry entry) {
+            Shift shift = shifts.computeIfAbsent(entry.getRecordId(), id -> new Shift(entry.getEmployerId()));
+            if (shift.employerId == null) {
+                shift.employerId = entry.getEmployerId();
+            }
+            if (ClockEventEntry.CLOCK_IN.equals(entry.getEventType())) {
+                shift.clockInAt = entry.getOccurredAt();
+                openRecordId = entry.getRecordId();
+                openSince = entry.getOccurredAt();
+            } else {
+                shift.clockOutAt = entry.getOccurredAt();
+                if (entry.getRecordId().equals(openRecordId)) {
+                    long minutes = Duration.between(openSince, entry.getOccurredAt()).toMinutes();
+                    shiftCount++;
+                    workedSeconds += minutes * 60;
+                    openRecordId = null;
+                    openSince = null;
+                }
+            }
+            lastEventId = entry.getEventId();
+            eventCount++;
+        }
+
+        void copyTo(EmployeeClockSnapshot snapshot) {
+            snapshot.setLastEventId(lastEventId);
+            snapshot.setEventCount(eventCount);
+            snapshot.setShiftCount(shiftCount);
+            snapshot.setWorkedSeconds(workedSeconds);
+            snapshot.setOpenRecordId(openRecordId);
+            snapshot.setOpenSince(openSince);
+        }
+
+        /**
+         * Records to project, closed ones first so a record that closed frees
+         * the open-shift key before the next one takes it.
+         */
+        List<Map.Entry<Integer, Shift>> rows() {
+            List<Map.Entry<Integer, Shift>> rows = new ArrayList<>();
+            shifts.entrySet().stream()
+                    .filter(entry -> entry.getValue().clockInAt != null && entry.getValue().clockOutAt != null)
+                    .forEach(rows::add);
+            shifts.entrySet().stream()
+                    .filter(entry -> entry.getValue().clockInAt != null && entry.getValue().clockOutAt == null)
+                    .forEach(rows::add);
+            return rows;
+        }
+    }
+
+    static final class Shift {
+        Integer employerId;
+        LocalDateTime clockInAt;
+        LocalDateTime clockOutAt;
+
+        Shift(Integer employerId) {
+            this.employerId = employerId;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockEventRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders one chunk of a clock-event batch for {@link ClockEventIngestionService}.
+ * <p>
+ * Each employee's events are taken in submitted order against their current
+ * state: an event may not be earlier than the previous one, nor than the end
+ * of their last closed shift, and clock-ins and clock-outs must alternate.
+ * The k-th accepted event of every employee goes into phase k, so a phase
+ * holds at most one event per employee and phases can be applied in order
+ * with one batch each.
+ */
+final class ClockEventPlanner {
+
+    private ClockEventPlanner() {
+    }
+
+    static Plan plan(List<Integer> employeeIds,
+                     Map<Integer, List<Integer>> byEmployee,
+                     List<ClockEventRequest> events,
+                     Map<Integer, EmployeeState> states) {
+        Map<Integer, String> rejected = new HashMap<>();
+        List<List<Step>> phases = new ArrayList<>();
+        for (Integer employeeId : employeeIds) {
+            EmployeeState state = states.getOrDefault(employeeId, EmployeeState.NONE);
+            Shift current = state.openRecordId() == null ? null
+                    : new Shift(employeeId, state.openClockInAt(), state.openRecordId());
+            LocalDateTime previous = current != null ? current.clockInAt : state.lastClockOutAt();
+            boolean previousIsClockOut = current == null;
+            int phase = 0;
+            for (Integer index : byEmployee.get(employeeId)) {
+                ClockEventRequest event = events.get(index);
+                LocalDateTime at = event.getOccurredAt();
+                boolean clockIn = "clock_in".equals(event.getType());
+                if (previous != null && at.isBefore(previous)) {
+                    rejected.put(index, phase == 0 && previousIsClockOut
+                            ? "Event is earlier than the employee's last clock-out"
+                            : "Event is earlier than the employee's previous event");
+                } else if (clockIn && current != null) {
+                    rejected.put(index, "Already clocked in");
+                } else if (!clockIn && current == null) {
+                    rejected.put(index, "No active clock-in record found");
+                } else {
+                    if (clockIn) {
+                        current = new Shift(employeeId, at, null);
+                        phase(phases, phase).add(new Step(index, current, null));
+                    } else {
+                        phase(phases, phase).add(new Step(index, current, at));
+                        current = null;
+                    }
+                    previous = at;
+                    phase++;
+                }
+            }
+        }
+        return new Plan(phases, rejected);
+    }
+
+    private static List<Step> phase(List<List<Step>> phases, int phase) {
+        while (phases.size() <= phase) {
+            phases.add(new ArrayList<>());
+        }
+        return phases.get(phase);
+    }
+
+    /**
+     * What the database holds for an employee before the chunk: their open
+     * shift, if any, and the end of their latest closed shift.
+     */
+    record EmployeeState(Integer openRecordId, LocalDateTime openClockInAt, LocalDateTime lastClockOutAt) {
+
+        static final EmployeeState NONE = new EmployeeState(null, null, null);
+    }
+
+    /**
+     * Phases in apply order, and the rejection message by event index.
+     */
+    record Plan(List<List<Step>> phases, Map<Integer, String> rejected) {}
+
+    static final class Shift {
+        final Integer employeeId;
+        final LocalDateTime clockInAt;
+        // Set once the clock-in has been inserted.
+        Integer recordId;
+
+        Shift(Integer employeeId, LocalDateTime clockInAt, Integer recordId) {
+            this.employeeId = employeeId;
+            this.clockInAt = clockInAt;
+            this.recordId = recordId;
+        }
+    }
+
+    // One planned event; clockOutAt is null for a clock-in.
+    record Step(int index, Shift shift, LocalDateTime clockOutAt) {}
+}
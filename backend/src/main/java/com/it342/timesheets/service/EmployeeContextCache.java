@@ -0,0 +1,41 @@
+package com.it342.timesheets.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.it342.timesheets.dto.EmployeeContext;
+import com.it342.timesheets.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of {@link EmployeeContext} by user id. An employee's employees row and
+ * employer never change after registration, so entries are not evicted on
+ * writes. Users without a linked employees row are not cached.
+ */
+@Component
+public class EmployeeContextCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final Cache<Integer, EmployeeContext> contexts;
+
+    public EmployeeContextCache(EmployeeRepository employeeRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.timesheets.employee-cache.max-size:50000}") long maxSize) {
+        this.employeeRepository = employeeRepository;
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contexts, "employee.context");
+    }
+
+    /**
+     * The employee context for a user, or null when the user is not linked to
+     * an employees row.
+     */
+    public EmployeeContext get(Integer userId) {
+        return contexts.get(userId, id -> employeeRepository.findContextByUserId(id).orElse(null));
+    }
+}
@@ -0,0 +1,40 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.repository.EmployeeHoursTotalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rebuilds employee_hours_totals from the raw timesheet records. The totals
+ * are kept current by clock-out; this corrects any drift and seeds the table
+ * for records that predate it.
+ */
+@Component
+public class EmployeeHoursReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeHoursReconciler.class);
+
+    private final EmployeeHoursTotalRepository totalRepository;
+
+    public EmployeeHoursReconciler(EmployeeHoursTotalRepository totalRepository) {
+        this.totalRepository = totalRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.timesheets.totals.reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        int removed = totalRepository.deleteWithoutClosedRecords();
+        int rows = totalRepository.rebuildAll(LocalDateTime.now());
+        log.info("Reconciled employee hours totals ({} rows affected, {} stale removed) in {} ms",
+                rows, removed, System.currentTimeMillis() - started);
+    }
+}
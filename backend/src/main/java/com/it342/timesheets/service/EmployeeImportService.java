@@ -0,0 +1,239 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.EmployeeImportRequest;
+import com.it342.timesheets.dto.EmployeeImportResponse;
+import com.it342.timesheets.dto.EmployeeImportResult;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.exception.ServiceUnavailableException;
+import com.it342.timesheets.repository.UserRepository;
+import com.it342.timesheets.security.PasswordHashExecutor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Creates many employee accounts for one employer in a single request.
+ * <p>
+ * The whole batch is validated up front: field constraints per row, duplicates
+ * within the batch, and existing usernames and emails with a few IN queries
+ * instead of two lookups per row. Accepted rows are then hashed in parallel and
+ * written with JDBC batch inserts, one transaction per chunk. If the hashing
+ * pool refuses a chunk, that chunk and the ones after it are reported as
+ * rejected with the retry message instead of failing the whole request.
+ */
+@Service
+public class EmployeeImportService {
+
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (username, email, password_hash, role, employer_id,
+                               created_at, updated_at, is_active, failed_attempts)
+            VALUES (?, ?, ?, ?, ?, ?, ?, true, 0)""";
+
+    private static final String INSERT_EMPLOYEE_SQL =
+            "INSERT INTO employees (employee_name, created_by_user_id, user_id, created_at, is_active) VALUES (?, ?, ?, ?, true)";
+
+    private final UserRepository userRepository;
+    private final PasswordHashExecutor passwordHasher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final UserUniquenessFilter uniquenessFilter;
+    private final int maxRows;
+    private final int chunkSize;
+
+    public EmployeeImportService(UserRepository userRepository,
+                                 PasswordHashExecutor passwordHasher,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 Validator validator,
+                                 UserUniquenessFilter uniquenessFilter,
+                                 @Value("${app.employees.import.max-rows:10000}") int maxRows,
+                                 @Value("${app.employees.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.uniquenessFilter = uniquenessFilter;
+        this.maxRows = maxRows;
+        this.chunkSize = chunkSize;
+    }
+
+    public EmployeeImportResponse importEmployees(Integer employerId, List<EmployeeImportRequest> rows) {
+        User employer = userRepository.findById(employerId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (employer.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can import employees");
+        }
+        if (rows == null || rows.isEmpty()) {
+            throw new RuntimeException("Import contains no rows");
+        }
+        if (rows.size() > maxRows) {
+            throw new RuntimeException("Import is limited to " + maxRows + " rows");
+        }
+
+        EmployeeImportResult[] results = new EmployeeImportResult[rows.size()];
+        List<PendingEmployee> accepted = validate(rows, results);
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<PendingEmployee> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            List<String> hashes;
+            try {
+                hashes = passwordHasher.encodeAll(chunk.stream().map(PendingEmployee::password).toList());
+            } catch (ServiceUnavailableException e) {
+                // Earlier chunks are committed, so report them and let the client resubmit the rest.
+                for (PendingEmployee pending : accepted.subList(from, accepted.size())) {
+                    results[pending.row()] = EmployeeImportResult.rejected(pending.row(), pending.username(), e.getMessage());
+                }
+                break;
+            }
+            try {
+                List<Integer> userIds = transactionTemplate.execute(status -> insertChunk(employer.getUserId(), chunk, hashes));
+                chunk.forEach(pending -> uniquenessFilter.recordUser(pending.username(), pending.email()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    PendingEmployee pending = chunk.get(i);
+                    results[pending.row()] = EmployeeImportResult.created(pending.row(), pending.username(), userIds.get(i));
+                }
+            } catch (DataIntegrityViolationException e) {
+                for (PendingEmployee pending : chunk) {
+                    results[pending.row()] = EmployeeImportResult.rejected(pending.row(), pending.username(),
+                            "Conflicts with a concurrent registration, please retry");
+                }
+            }
+        }
+
+        List<EmployeeImportResult> report = Arrays.asList(results);
+        int created = (int) report.stream().filter(result -> result.getUserId() != null).count();
+        return new EmployeeImportResponse(created, report.size() - created, report);
+    }
+
+    private List<PendingEmployee> validate(List<EmployeeImportRequest> rows, EmployeeImportResult[] results) {
+        List<PendingEmployee> candidates = new ArrayList<>(rows.size());
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int row = 0; row < rows.size(); row++) {
+            EmployeeImportRequest request = rows.get(row);
+            if (request == null) {
+                results[row] = EmployeeImportResult.rejected(row, null, "Row is empty");
+                continue;
+            }
+            Set<ConstraintViolation<EmployeeImportRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                results[row] = EmployeeImportResult.rejected(row, request.getUsername(), violations.iterator().next().getMessage());
+                continue;
+            }
+
+            String username = request.getUsername().trim();
+            String email = request.getEmail().trim().toLowerCase(Locale.ROOT);
+            if (!batchUsernames.add(username.toLowerCase(Locale.ROOT))) {
+                results[row] = EmployeeImportResult.rejected(row, username, "Duplicate username in import");
+            } else if (!batchEmails.add(email)) {
+                results[row] = EmployeeImportResult.rejected(row, username, "Duplicate email in import");
+            } else {
+                candidates.add(new PendingEmployee(row, username, email, request.getPassword()));
+            }
+        }
+
+        Set<String> takenUsernames = lookup(candidates, PendingEmployee::username, userRepository::findExistingUsernames);
+        Set<String> takenEmails = lookup(candidates, PendingEmployee::email, userRepository::findExistingEmails);
+
+        List<PendingEmployee> accepted = new ArrayList<>(candidates.size());
+        for (PendingEmployee candidate : candidates) {
+            if (takenUsernames.contains(candidate.username().toLowerCase(Locale.ROOT))) {
+                results[candidate.row()] = EmployeeImportResult.rejected(candidate.row(), candidate.username(), "User already exists");
+            } else if (takenEmails.contains(candidate.email())) {
+                results[candidate.row()] = EmployeeImportResult.rejected(candidate.row(), candidate.username(), "Email already exists");
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        return accepted;
+    }
+
+    private static Set<String> lookup(List<PendingEmployee> candidates,
+                                      Function<PendingEmployee, String> field,
+                                      Function<Collection<String>, List<String>> query) {
+        Set<String> found = new HashSet<>();
+        for (int from = 0; from < candidates.size(); from += LOOKUP_CHUNK) {
+            List<String> values = candidates.subList(from, Math.min(from + LOOKUP_CHUNK, candidates.size()))
+                    .stream().map(field).toList();
+            query.apply(values).forEach(value -> found.add(value.toLowerCase(Locale.ROOT)));
+        }
+        return found;
+    }
+
+    private List<Integer> insertChunk(Integer employerId, List<PendingEmployee> chunk, List<String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingEmployee pending = chunk.get(i);
+                        ps.setString(1, pending.username());
+                        ps.setString(2, pending.email());
+                        ps.setString(3, hashes.get(i));
+                        ps.setString(4, UserRole.EMPLOYEE.name());
+                        ps.setInt(5, employerId);
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keys);
+
+        List<Integer> userIds = keys.getKeyList().stream().map(EmployeeImportService::generatedId).toList();
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, chunk.get(i).username());
+                ps.setInt(2, employerId);
+                ps.setInt(3, userIds.get(i));
+                ps.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunk.size();
+            }
+        });
+        return userIds;
+    }
+
+    private static Integer generatedId(Map<String, Object> key) {
+        return ((Number) key.values().iterator().next()).intValue();
+    }
+
+    private record PendingEmployee(int row, String username, String email, String password) {}
+}
@@ -0,0 +1,48 @@
+package com.it342.timesheets.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Links employees rows created before employees.user_id existed to their
+ * user. The match is the one the timesheet service used to make on every
+ * request: an EMPLOYEE user with the same name under the same employer,
+ * newest employees row first. Runs at startup once the schema update has
+ * added the column, before requests are served, and does nothing once every
+ * row is linked.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class EmployeeUserBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeUserBackfill.class);
+
+    private static final String BACKFILL_SQL = """
+            UPDATE employees e
+            JOIN (SELECT MAX(e2.employee_id) AS employee_id, u.user_id
+                  FROM employees e2
+                  JOIN users u ON u.username = e2.employee_name AND u.employer_id = e2.created_by_user_id
+                  WHERE u.role = 'EMPLOYEE'
+                    AND NOT EXISTS (SELECT 1 FROM employees linked WHERE linked.user_id = u.user_id)
+                  GROUP BY u.user_id) latest ON latest.employee_id = e.employee_id
+            SET e.user_id = latest.user_id
+            WHERE e.user_id IS NULL""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeUserBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        int linked = jdbcTemplate.update(BACKFILL_SQL);
+        if (linked > 0) {
+            log.info("Linked {} employees to their user accounts", linked);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.UserResponse;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of employer usernames for the public registration search.
+ * <p>
+ * Answers the same question as the old
+ * {@code findTop10ByRoleAndUsernameContainingIgnoreCaseOrderByUsernameAsc}:
+ * the first ten employers, by username, whose name contains the query ignoring
+ * case. Queries of three or more characters are narrowed through a trigram
+ * index to the rarest trigram's postings; shorter queries walk the sorted
+ * names and stop after ten matches.
+ */
+@Component
+public class EmployerDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployerDirectory.class);
+
+    static final int LIMIT = 10;
+
+    private final UserRepository userRepository;
+    private final ConcurrentSkipListMap<String, UserResponse> byName = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    public EmployerDirectory(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : userRepository.findSummariesByRole(UserRole.EMPLOYER)) {
+            add(new UserResponse((Integer) row[0], (String) row[1], (String) row[2], UserRole.EMPLOYER.name(), null));
+        }
+        log.info("Indexed {} employers", byName.size());
+    }
+
+    public void add(UserResponse employer) {
+        String normalized = normalize(employer.getUsername());
+        String key = sortKey(normalized, employer.getUsername());
+        byName.put(key, employer);
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            trigrams.computeIfAbsent(trigram(normalized, i), t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    public List<UserResponse> search(String query) {
+        String normalized = query == null ? "" : normalize(query.trim());
+        if (normalized.length() < 3) {
+            return scanInOrder(normalized);
+        }
+
+        Set<String> candidates = null;
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            Set<String> postings = trigrams.get(trigram(normalized, i));
+            if (postings == null) {
+                return List.of();
+            }
+            if (candidates == null || postings.size() < candidates.size()) {
+                candidates = postings;
+            }
+        }
+
+        TreeSet<String> top = new TreeSet<>();
+        for (String key : candidates) {
+            if (top.size() == LIMIT && key.compareTo(top.last()) >= 0) {
+                continue;
+            }
+            if (nameOf(key).contains(normalized)) {
+                top.add(key);
+                if (top.size() > LIMIT) {
+                    top.pollLast();
+                }
+            }
+        }
+
+        List<UserResponse> results = new ArrayList<>(top.size());
+        for (String key : top) {
+            UserResponse employer = byName.get(key);
+            if (employer != null) {
+                results.add(employer);
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private List<UserResponse> scanInOrder(String normalized) {
+        List<UserResponse> results = new ArrayList<>(LIMIT);
+        for (Map.Entry<String, UserResponse> entry : byName.entrySet()) {
+            if (normalized.isEmpty() || nameOf(entry.getKey()).contains(normalized)) {
+                results.add(entry.getValue());
+                if (results.size() == LIMIT) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // Lower-cased name first so the map iterates in case-insensitive order;
+    // the original spelling breaks ties between names differing only in case.
+    private static String sortKey(String normalized, String username) {
+        return normalized + '\u0000' + username;
+    }
+
+    private static String nameOf(String key) {
+        return key.substring(0, key.indexOf('\u0000'));
+    }
+
+    private static long trigram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+}
@@ -0,0 +1,118 @@
+package com.it342.timesheets.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: timers hash into a ring of slots by deadline tick, so
+ * scheduling and cancelling are O(1) and advancing only visits the slots
+ * whose ticks have passed. Timers further out than one turn of the wheel
+ * wait in their slot until their deadline tick comes round.
+ * <p>
+ * Timers are keyed, and scheduling an existing key moves it. Deadlines are
+ * epoch milliseconds. All methods are synchronized.
+ */
+public class HashedTimingWheel<K, V> {
+
+    private final long tickMillis;
+    private final Node<K, V>[] slots;
+    private final int mask;
+    private final Map<K, Node<K, V>> timers = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = (Node<K, V>[]) new Node[size];
+        this.mask = size - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, V value, long deadlineMillis) {
+        cancel(key);
+        // Deadlines already due fire on the next advance.
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        Node<K, V> node = new Node<>(key, value, tick);
+        int slot = (int) (tick & mask);
+        node.next = slots[slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[slot] = node;
+        timers.put(key, node);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Node<K, V> node = timers.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and returns the values of the
+     * timers that expired, removing them.
+     */
+    public synchronized List<V> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<V> expired = new ArrayList<>();
+        if (target <= currentTick) {
+            return expired;
+        }
+        // After a long pause every slot is visited once rather than once per missed tick.
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            Node<K, V> node = slots[(int) (tick & mask)];
+            while (node != null) {
+                Node<K, V> next = node.next;
+                if (node.tick <= target) {
+                    unlink(node);
+                    timers.remove(node.key);
+                    expired.add(node.value);
+                }
+                node = next;
+            }
+        }
+        currentTick = target;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[(int) (node.tick & mask)] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long tick;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long tick) {
+            this.key = key;
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.it342.timesheets.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for the per-user login counters (failed_attempts and
+ * last_login). Updates for the same user are coalesced in memory and written
+ * in JDBC batches on a short fixed delay, and once more on shutdown.
+ * <p>
+ * An entry stays visible until its row has been written, so the in-memory
+ * failure count is always at least as new as the database.
+ */
+@Component
+public class LoginBookkeepingBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginBookkeepingBuffer.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET failed_attempts = ?, last_login = COALESCE(?, last_login), updated_at = ? WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final ConcurrentHashMap<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    public LoginBookkeepingBuffer(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.auth.bookkeeping.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Counts a failed attempt and returns the user's new failure count.
+     */
+    public int recordFailure(Integer userId, Integer persistedFailedAttempts) {
+        Pending updated = pending.compute(userId, (id, current) -> {
+            int base = current != null
+                    ? current.failedAttempts()
+                    : (persistedFailedAttempts == null ? 0 : persistedFailedAttempts);
+            return new Pending(base + 1, current == null ? null : current.lastLogin(), LocalDateTime.now());
+        });
+        return updated.failedAttempts();
+    }
+
+    public void recordSuccess(Integer userId, LocalDateTime loginAt) {
+        pending.put(userId, new Pending(0, loginAt, loginAt));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.bookkeeping.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Integer, Pending>> snapshot = new ArrayList<>(pending.size());
+        pending.forEach((userId, update) -> snapshot.add(Map.entry(userId, update)));
+
+        for (int from = 0; from < snapshot.size(); from += batchSize) {
+            List<Map.Entry<Integer, Pending>> chunk = snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, chunk.size(), (ps, entry) -> {
+                    Pending update = entry.getValue();
+                    ps.setInt(1, update.failedAttempts());
+                    ps.setTimestamp(2, update.lastLogin() == null ? null : Timestamp.valueOf(update.lastLogin()));
+                    ps.setTimestamp(3, Timestamp.valueOf(update.updatedAt()));
+                    ps.setInt(4, entry.getKey());
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} login bookkeeping updates, will retry", chunk.size(), e);
+                continue;
+            }
+            chunk.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} login bookkeeping updates could not be written before shutdown", pending.size());
+        }
+    }
+
+    private record Pending(int failedAttempts, LocalDateTime lastLogin, LocalDateTime updatedAt) {}
+}
@@ -0,0 +1,61 @@
+package com.it342.timesheets.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closes duplicate open records left from before the one-open-shift key, so
+ * the schema update can add uk_timesheet_records_open_shift. Each employee
+ * keeps their newest open record; older ones are closed at their own
+ * clock-in with zero hours, since when they really ended is unknown. Runs
+ * before the entity manager factory and does nothing on a clean table.
+ */
+@Component
+public class OpenShiftDeduplication {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenShiftDeduplication.class);
+
+    private static final String TABLE_EXISTS_SQL = """
+            SELECT COUNT(*) FROM information_schema.tables
+            WHERE table_schema = DATABASE() AND table_name = 'timesheet_records'""";
+
+    private static final String CLOSE_DUPLICATES_SQL = """
+            UPDATE timesheet_records r
+            JOIN (SELECT employee_id, MAX(record_id) AS keep_id
+                  FROM timesheet_records
+                  WHERE status = 'clocked_in'
+                  GROUP BY employee_id
+                  HAVING COUNT(*) > 1) dup ON dup.employee_id = r.employee_id
+            SET r.status = 'clocked_out', r.clock_out_time = r.clock_in_time, r.hours_worked = 0, r.updated_at = NOW()
+            WHERE r.status = 'clocked_in' AND r.record_id <> dup.keep_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OpenShiftDeduplication(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void closeDuplicates() {
+        Integer tables = jdbcTemplate.queryForObject(TABLE_EXISTS_SQL, Integer.class);
+        if (tables == null || tables == 0) {
+            return;
+        }
+        int closed = jdbcTemplate.update(CLOSE_DUPLICATES_SQL);
+        if (closed > 0) {
+            log.warn("Closed {} duplicate open timesheet records with zero hours", closed);
+        }
+    }
+
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super("openShiftDeduplication");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.it342.timesheets.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits worked time into regular, daily overtime and weekly overtime per
+ * employee, over shifts held in primitive columns.
+ * <p>
+ * Shifts are grouped by employee in CSR layout: employee {@code e} owns
+ * indexes {@code offsets[e]} to {@code offsets[e + 1] - 1}, in clock-in order.
+ * Times are epoch seconds of the local wall-clock time, so days and weeks
+ * follow the timestamps as stored. Each shift is first truncated to whole
+ * minutes, matching the hours recorded at clock-out, then split at midnight.
+ * Time beyond the daily limit on a calendar day is daily overtime; remaining
+ * time beyond the weekly limit in a Monday-to-Sunday week is weekly overtime.
+ * Shifts clocked in before {@link Shifts#countFrom()} belong to an earlier
+ * period: they fill the day and week ahead of the counted shifts but are not
+ * themselves attributed. Employees are independent, so ranges of them are
+ * computed in parallel.
+ */
+public class PayrollCalculator {
+
+    static final long SECONDS_PER_DAY = 86_400;
+
+    private static final int EMPLOYEES_PER_TASK = 512;
+
+    private final long dailyLimitSeconds;
+    private final long weeklyLimitSeconds;
+
+    public PayrollCalculator(long dailyLimitSeconds, long weeklyLimitSeconds) {
+        this.dailyLimitSeconds = dailyLimitSeconds;
+        this.weeklyLimitSeconds = weeklyLimitSeconds;
+    }
+
+    public record Shifts(int employeeCount, int[] offsets, long[] clockIn, long[] clockOut, long countFrom) {}
+
+    /**
+     * Per-employee results in seconds, indexed like {@link Shifts#offsets()}.
+     */
+    public record Result(long[] regular, long[] dailyOvertime, long[] weeklyOvertime, int[] shiftCount) {}
+
+    public Result calculate(Shifts shifts, ForkJoinPool pool) {
+        int n = shifts.employeeCount();
+        Result result = new Result(new long[n], new long[n], new long[n], new int[n]);
+        pool.invoke(new Slice(shifts, result, 0, n));
+        return result;
+    }
+
+    private void calculateEmployee(Shifts shifts, Result result, int employee) {
+        long[] clockIn = shifts.clockIn();
+        long[] clockOut = shifts.clockOut();
+        int first = shifts.offsets()[employee];
+        int last = shifts.offsets()[employee + 1];
+
+        Totals totals = new Totals();
+        long currentDay = Long.MIN_VALUE;
+        long currentWeek = Long.MIN_VALUE;
+        long dayWorked = 0;
+        long daySeed = 0;
+        int counted = 0;
+
+        for (int i = first; i < last; i++) {
+            long start = clockIn[i];
+            long end = start + (clockOut[i] - start) / 60 * 60;
+            boolean seed = start < shifts.countFrom();
+            if (!seed) {
+                counted++;
+            }
+            while (start < end) {
+                long day = Math.floorDiv(start, SECONDS_PER_DAY);
+                long segmentEnd = Math.min(end, (day + 1) * SECONDS_PER_DAY);
+                if (day != currentDay) {
+                    // Close the previous day before starting this one.
+                    totals.closeDay(dayWorked, daySeed);
+
+                    // Epoch day 0 is a Thursday; shifting by three makes weeks start on Monday.
+                    long week = Math.floorDiv(day + 3, 7);
+                    if (week != currentWeek) {
+                        currentWeek = week;
+                        totals.weekRegular = 0;
+                    }
+                    currentDay = day;
+                    dayWorked = 0;
+                    daySeed = 0;
+                }
+                dayWorked += segmentEnd - start;
+                if (seed) {
+                    daySeed += segmentEnd - start;
+                }
+                start = segmentEnd;
+            }
+        }
+        totals.closeDay(dayWorked, daySeed);
+
+        result.regular()[employee] = totals.regular;
+        result.dailyOvertime()[employee] = totals.dailyOvertime;
+        result.weeklyOvertime()[employee] = totals.weeklyOvertime;
+        result.shiftCount()[employee] = counted;
+    }
+
+    // Running totals for one employee. Seed time is earlier than any counted
+    // time, so on each day it takes the first share of the daily and weekly limits.
+    private final class Totals {
+
+        long weekRegular;
+        long regular;
+        long dailyOvertime;
+        long weeklyOvertime;
+
+        void closeDay(long worked, long seed) {
+            long dayRegular = Math.min(worked, dailyLimitSeconds);
+            long seedRegular = Math.min(seed, dayRegular);
+            weekRegular += seedRegular - overWeek(seedRegular);
+
+            long countedRegular = dayRegular - seedRegular;
+            long overWeek = overWeek(countedRegular);
+            dailyOvertime += (worked - dayRegular) - (seed - seedRegular);
+            weeklyOvertime += overWeek;
+            regular += countedRegular - overWeek;
+            weekRegular += countedRegular - overWeek;
+        }
+
+        private long overWeek(long dayRegular) {
+            return Math.max(0, Math.min(dayRegular, weekRegular + dayRegular - weeklyLimitSeconds));
+        }
+    }
+
+    private final class Slice extends RecursiveAction {
+
+        private final Shifts shifts;
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        Slice(Shifts shifts, Result result, int from, int to) {
+            this.shifts = shifts;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EMPLOYEES_PER_TASK) {
+                for (int employee = from; employee < to; employee++) {
+                    calculateEmployee(shifts, result, employee);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Slice(shifts, result, from, middle), new Slice(shifts, result, middle, to));
+        }
+    }
+}
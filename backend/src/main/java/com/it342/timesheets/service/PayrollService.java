@@ -0,0 +1,247 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.PayrollEmployeeSummaryResponse;
+import com.it342.timesheets.dto.PayrollRunResponse;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.PayrollPeriodSummaryRepository;
+import com.it342.timesheets.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.DayOfWeek;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes and stores an employer's payroll summary for a pay period.
+ * <p>
+ * Closed shifts clocked in during the period are streamed into primitive
+ * columns, grouped by employee with a counting sort and handed to
+ * {@link PayrollCalculator}. The per-employee results replace any earlier
+ * run for the same period in payroll_period_summaries. When the period starts
+ * mid-week, shifts from the Monday before are loaded as well; they count
+ * toward the weekly limit but are paid in their own period. A shift belongs
+ * to the period it clocks in during and is counted whole, including any time
+ * after the period's last day; it is not clipped, so it is never split across
+ * two pay runs.
+ */
+@Service
+public class PayrollService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollService.class);
+
+    private static final String SHIFTS_SQL = """
+            SELECT employee_id, clock_in_time, clock_out_time
+            FROM timesheet_records
+            WHERE created_by_user_id = ? AND clock_in_time >= ? AND clock_in_time < ? AND status = 'clocked_out'
+            ORDER BY clock_in_time, record_id""";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM payroll_period_summaries WHERE employer_id = ? AND period_start = ? AND period_end = ?";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO payroll_period_summaries (employer_id, employee_id, period_start, period_end, regular_hours,
+                                                  daily_overtime_hours, weekly_overtime_hours, total_hours,
+                                                  shift_count, computed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final int INSERT_BATCH = 1000;
+    private static final BigDecimal SECONDS_PER_HOUR = BigDecimal.valueOf(3600);
+
+    private final UserRepository userRepository;
+    private final PayrollPeriodSummaryRepository summaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PayrollCalculator calculator;
+    private final int maxPeriodDays;
+
+    public PayrollService(UserRepository userRepository,
+                          PayrollPeriodSummaryRepository summaryRepository,
+                          JdbcTemplate jdbcTemplate,
+                          DataSource dataSource,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.payroll.daily-overtime-hours:8}") long dailyOvertimeHours,
+                          @Value("${app.payroll.weekly-overtime-hours:40}") long weeklyOvertimeHours,
+                          @Value("${app.payroll.max-period-days:62}") int maxPeriodDays) {
+        this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = transactionTemplate;
+        this.calculator = new PayrollCalculator(dailyOvertimeHours * 3600, weeklyOvertimeHours * 3600);
+        this.maxPeriodDays = maxPeriodDays;
+    }
+
+    public PayrollRunResponse run(Integer userId, LocalDate from, LocalDate to) {
+        requireEmployer(userId);
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxPeriodDays) {
+            throw new RuntimeException("Pay period is limited to " + maxPeriodDays + " days");
+        }
+
+        long started = System.currentTimeMillis();
+        ShiftColumns columns = load(userId, from, to);
+        long loaded = System.currentTimeMillis();
+        PayrollCalculator.Result result = calculator.calculate(columns.shifts(), ForkJoinPool.commonPool());
+        long calculated = System.currentTimeMillis();
+
+        LocalDateTime computedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> store(userId, from, to, columns, result, computedAt));
+        log.info("Payroll for employer {} {}..{}: {} employees, {} shifts loaded; load {} ms, calculate {} ms, store {} ms",
+                userId, from, to, columns.employeeIds().length, columns.shifts().clockIn().length,
+                loaded - started, calculated - loaded, System.currentTimeMillis() - calculated);
+
+        long regular = Arrays.stream(result.regular()).sum();
+        long dailyOvertime = Arrays.stream(result.dailyOvertime()).sum();
+        long weeklyOvertime = Arrays.stream(result.weeklyOvertime()).sum();
+        int shiftCount = Arrays.stream(result.shiftCount()).sum();
+        return new PayrollRunResponse(from, to, paidEmployees(result).size(), shiftCount,
+                hours(regular), hours(dailyOvertime), hours(weeklyOvertime),
+                hours(regular + dailyOvertime + weeklyOvertime), computedAt);
+    }
+
+    public List<PayrollEmployeeSummaryResponse> getSummaries(Integer userId, LocalDate from, LocalDate to) {
+        requireEmployer(userId);
+        return summaryRepository.findByEmployerIdAndPeriodStartAndPeriodEndOrderByEmployeeIdAsc(userId, from, to)
+                .stream()
+                .map(summary -> new PayrollEmployeeSummaryResponse(summary.getEmployeeId(), summary.getRegularHours(),
+                        summary.getDailyOvertimeHours(), summary.getWeeklyOvertimeHours(), summary.getTotalHours(),
+                        summary.getShiftCount()))
+                .toList();
+    }
+
+    private void requireEmployer(Integer userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can run payroll");
+        }
+    }
+
+    // Starts at the Monday on or before the period so earlier shifts that week seed the weekly limit.
+    private ShiftColumns load(Integer employerId, LocalDate from, LocalDate to) {
+        LocalDate weekStart = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        Map<Integer, Integer> indexByEmployee = new HashMap<>();
+        List<Integer> employeeIds = new ArrayList<>();
+        ShiftBuffer buffer = new ShiftBuffer();
+        streamingJdbcTemplate.query(SHIFTS_SQL, rs -> {
+            int index = indexByEmployee.computeIfAbsent(rs.getInt(1), id -> {
+                employeeIds.add(id);
+                return employeeIds.size() - 1;
+            });
+            buffer.add(index, epochSecond(rs.getTimestamp(2)), epochSecond(rs.getTimestamp(3)));
+        }, employerId, Timestamp.valueOf(weekStart.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+
+        // Counting sort by employee; stable, so each employee's shifts stay in clock-in order.
+        int rows = buffer.size;
+        int employees = employeeIds.size();
+        int[] offsets = new int[employees + 1];
+        for (int i = 0; i < rows; i++) {
+            offsets[buffer.employee[i] + 1]++;
+        }
+        for (int e = 0; e < employees; e++) {
+            offsets[e + 1] += offsets[e];
+        }
+        int[] next = Arrays.copyOf(offsets, employees);
+        long[] clockIn = new long[rows];
+        long[] clockOut = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            int slot = next[buffer.employee[i]]++;
+            clockIn[slot] = buffer.clockIn[i];
+            clockOut[slot] = buffer.clockOut[i];
+        }
+
+        int[] ids = employeeIds.stream().mapToInt(Integer::intValue).toArray();
+        long countFrom = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        return new ShiftColumns(ids, new PayrollCalculator.Shifts(employees, offsets, clockIn, clockOut, countFrom));
+    }
+
+    private void store(Integer employerId, LocalDate from, LocalDate to, ShiftColumns columns,
+                       PayrollCalculator.Result result, LocalDateTime computedAt) {
+        Date periodStart = Date.valueOf(from);
+        Date periodEnd = Date.valueOf(to);
+        Timestamp computed = Timestamp.valueOf(computedAt);
+        jdbcTemplate.update(DELETE_SQL, employerId, periodStart, periodEnd);
+
+        int[] ids = columns.employeeIds();
+        jdbcTemplate.batchUpdate(INSERT_SQL, paidEmployees(result), INSERT_BATCH, (ps, e) -> {
+            long regular = result.regular()[e];
+            long dailyOvertime = result.dailyOvertime()[e];
+            long weeklyOvertime = result.weeklyOvertime()[e];
+            ps.setInt(1, employerId);
+            ps.setInt(2, ids[e]);
+            ps.setDate(3, periodStart);
+            ps.setDate(4, periodEnd);
+            ps.setBigDecimal(5, hours(regular));
+            ps.setBigDecimal(6, hours(dailyOvertime));
+            ps.setBigDecimal(7, hours(weeklyOvertime));
+            ps.setBigDecimal(8, hours(regular + dailyOvertime + weeklyOvertime));
+            ps.setInt(9, result.shiftCount()[e]);
+            ps.setTimestamp(10, computed);
+        });
+    }
+
+    // Employees loaded only for their earlier shifts that week have nothing to pay in this period.
+    private static List<Integer> paidEmployees(PayrollCalculator.Result result) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int e = 0; e < result.shiftCount().length; e++) {
+            if (result.shiftCount()[e] > 0) {
+                indexes.add(e);
+            }
+        }
+        return indexes;
+    }
+
+    private static long epochSecond(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static BigDecimal hours(long seconds) {
+        return BigDecimal.valueOf(seconds).divide(SECONDS_PER_HOUR, 2, RoundingMode.HALF_UP);
+    }
+
+    private record ShiftColumns(int[] employeeIds, PayrollCalculator.Shifts shifts) {}
+
+    // Growable columns for rows in arrival order.
+    private static final class ShiftBuffer {
+        int[] employee = new int[1024];
+        long[] clockIn = new long[1024];
+        long[] clockOut = new long[1024];
+        int size;
+
+        void add(int employeeIndex, long in, long out) {
+            if (size == employee.length) {
+                employee = Arrays.copyOf(employee, size * 2);
+                clockIn = Arrays.copyOf(clockIn, size * 2);
+                clockOut = Arrays.copyOf(clockOut, size * 2);
+            }
+            employee[size] = employeeIndex;
+            clockIn[size] = in;
+            clockOut[size] = out;
+            size++;
+        }
+    }
+}
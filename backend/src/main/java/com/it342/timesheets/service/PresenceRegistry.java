@@ -0,0 +1,126 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockedInEmployeeResponse;
+import com.it342.timesheets.repository.TimesheetRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is clocked in right now, per employer.
+ * <p>
+ * Loaded from the open records at startup and then kept current from
+ * {@link ClockEvent}s after their transaction commits. After-commit listeners
+ * of two requests can run in either order, so each employee keeps the latest
+ * shift seen, open or closed, and an event for an older record is ignored.
+ */
+@Component
+public class PresenceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    private final TimesheetRecordRepository timesheetRecordRepository;
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<Integer, Shift>> byEmployer = new ConcurrentHashMap<>();
+
+    public PresenceRegistry(TimesheetRecordRepository timesheetRecordRepository) {
+        this.timesheetRecordRepository = timesheetRecordRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        int open = 0;
+        for (Object[] row : timesheetRecordRepository.findOpenShifts()) {
+            apply((Integer) row[0], (Integer) row[1],
+                    new Shift((Integer) row[3], (String) row[2], (LocalDateTime) row[4], true));
+            open++;
+        }
+        log.info("Loaded {} open shifts into the presence registry", open);
+    }
+
+    @TransactionalEventListener
+    public void onClockEvent(ClockEvent event) {
+        boolean open = event.type() == ClockEvent.Type.CLOCK_IN;
+        apply(event.employerId(), event.employeeId(),
+                new Shift(event.recordId(), event.employeeName(), event.clockInAt(), open));
+    }
+
+    public boolean isClockedIn(Integer employerId, Integer employeeId) {
+        return openShift(employerId, employeeId) != null;
+    }
+
+    /**
+     * The employee's open shift, or null when they are not clocked in.
+     */
+    public Shift openShift(Integer employerId, Integer employeeId) {
+        Map<Integer, Shift> employees = byEmployer.get(employerId);
+        Shift shift = employees == null ? null : employees.get(employeeId);
+        return shift != null && shift.open() ? shift : null;
+    }
+
+    public List<ClockedInEmployeeResponse> clockedIn(Integer employerId) {
+        Map<Integer, Shift> employees = byEmployer.get(employerId);
+        if (employees == null) {
+            return List.of();
+        }
+        List<ClockedInEmployeeResponse> result = new ArrayList<>();
+        employees.forEach((employeeId, shift) -> {
+            if (shift.open()) {
+                result.add(new ClockedInEmployeeResponse(employeeId, shift.employeeName(), shift.recordId(), shift.clockInAt()));
+            }
+        });
+        result.sort(Comparator.comparing(ClockedInEmployeeResponse::getClockInAt));
+        return result;
+    }
+
+    public int count(Integer employerId) {
+        Map<Integer, Shift> employees = byEmployer.get(employerId);
+        if (employees == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Shift shift : employees.values()) {
+            if (shift.open()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void forEachOpenShift(OpenShiftConsumer consumer) {
+        byEmployer.forEach((employerId, employees) -> employees.forEach((employeeId, shift) -> {
+            if (shift.open()) {
+                consumer.accept(employerId, employeeId, shift);
+            }
+        }));
+    }
+
+    private void apply(Integer employerId, Integer employeeId, Shift update) {
+        byEmployer.computeIfAbsent(employerId, id -> new ConcurrentHashMap<>())
+                .merge(employeeId, update, PresenceRegistry::newer);
+    }
+
+    // A closed shift beats the open one for the same record.
+    private static Shift newer(Shift current, Shift update) {
+        int order = Integer.compare(update.recordId(), current.recordId());
+        if (order > 0 || (order == 0 && !update.open())) {
+            return update;
+        }
+        return current;
+    }
+
+    @FunctionalInterface
+    public interface OpenShiftConsumer {
+        void accept(Integer employerId, Integer employeeId, Shift shift);
+    }
+
+    public record Shift(Integer recordId, String employeeName, LocalDateTime clockInAt, boolean open) {}
+}
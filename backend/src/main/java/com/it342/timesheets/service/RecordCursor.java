@@ -0,0 +1,30 @@
+package com.it342.timesheets.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a (clock_in_time desc, record_id desc) listing, passed
+ * to clients as an opaque string.
+ */
+public record RecordCursor(LocalDateTime clockInAt, Integer recordId) {
+
+    public String encode() {
+        String raw = clockInAt + "|" + recordId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RecordCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new RecordCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.security.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes dead rows from user_sessions in small primary-key ordered chunks,
+ * pausing between chunks so each DELETE holds its row locks only briefly.
+ * <p>
+ * A session is dead once it has expired, or once it is inactive and its token
+ * is older than the JWT lifetime. Inactive sessions with a still-valid token
+ * are kept because the revocation index is rebuilt from them at startup.
+ */
+@Component
+public class SessionPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionPurgeJob.class);
+
+    private static final String SELECT_CHUNK_SQL = """
+            SELECT session_id FROM user_sessions
+            WHERE session_id > :afterId
+              AND (expires_at < :now OR (is_active = false AND created_at < :tokenIssuedBefore))
+            ORDER BY session_id
+            LIMIT :limit""";
+
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM user_sessions WHERE session_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long tokenLifetimeMs;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final Counter purgedRows;
+    private final Timer purgeTimer;
+
+    public SessionPurgeJob(NamedParameterJdbcTemplate jdbcTemplate,
+                           JwtUtil jwtUtil,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.sessions.purge.chunk-size:500}") int chunkSize,
+                           @Value("${app.sessions.purge.pause-ms:50}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenLifetimeMs = jwtUtil.getExpirationMs();
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.purgedRows = Counter.builder("sessions.purge.rows").register(meterRegistry);
+        this.purgeTimer = Timer.builder("sessions.purge").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.sessions.purge.cron:0 */15 * * * *}")
+    public void purge() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", now)
+                .addValue("tokenIssuedBefore", now.minus(Duration.ofMillis(tokenLifetimeMs)))
+                .addValue("limit", chunkSize)
+                .addValue("afterId", 0);
+
+        int purged = 0;
+        while (true) {
+            List<Integer> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, params, Integer.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            purged += jdbcTemplate.update(DELETE_CHUNK_SQL, new MapSqlParameterSource("ids", ids));
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+            params.addValue("afterId", ids.get(ids.size() - 1));
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        purgedRows.increment(purged);
+        purgeTimer.record(Duration.ofNanos(elapsedNanos));
+        log.info("Purged {} user sessions in {} ms", purged, Duration.ofNanos(elapsedNanos).toMillis());
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserSession;
+import com.it342.timesheets.repository.UserSessionRepository;
+import com.it342.timesheets.security.JwtUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+public class SessionService {
+
+    private final UserSessionRepository sessionRepository;
+    private final Duration tokenLifetime;
+
+    public SessionService(UserSessionRepository sessionRepository, JwtUtil jwtUtil) {
+        this.sessionRepository = sessionRepository;
+        this.tokenLifetime = Duration.ofMillis(jwtUtil.getExpirationMs());
+    }
+
+    @Transactional
+    public void startSession(User user, String token) {
+        sessionRepository.deactivateActiveSessions(user.getUserId());
+
+        UserSession session = new UserSession();
+        session.setUser(user);
+        session.setSessionToken(token);
+        // Matches the token's exp, so a revoked session outlives the purge as long as its token could be used.
+        session.setExpiresAt(LocalDateTime.now().plus(tokenLifetime));
+        sessionRepository.save(session);
+    }
+}
@@ -0,0 +1,211 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Streams an employer's timesheet records as CSV or NDJSON.
+ * <p>
+ * Rows come from a forward-only MySQL streaming result set (fetch size
+ * {@link Integer#MIN_VALUE}) and are written straight to the response, so no
+ * entities are created and memory stays flat however many rows there are.
+ * Rows are ordered by the (created_by_user_id, clock_in_time, record_id)
+ * index, which avoids a sort.
+ */
+@Service
+public class TimesheetExportService {
+
+    private static final String EXPORT_SQL = """
+            SELECT r.record_id, e.employee_id, e.employee_name, r.clock_in_time, r.clock_out_time,
+                   r.hours_worked, r.status
+            FROM timesheet_records r
+            JOIN employees e ON e.employee_id = r.employee_id
+            WHERE r.created_by_user_id = ? AND r.clock_in_time >= ? AND r.clock_in_time < ?
+            ORDER BY r.clock_in_time, r.record_id""";
+
+    // Same rendering as the JSON endpoints.
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String CSV_HEADER = "record_id,employee_id,employee_name,clock_in_at,clock_out_at,hours_worked,status\n";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format");
+            }
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public TimesheetExportService(UserRepository userRepository, DataSource dataSource) {
+        this.userRepository = userRepository;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Checks the caller and range up front, so errors are still reported as
+     * normal responses, and returns the body that streams the rows.
+     */
+    public StreamingResponseBody export(Integer userId, LocalDate from, LocalDate to, Format format) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can export timesheets");
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            try {
+                streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+                    try {
+                        if (format == Format.CSV) {
+                            writeCsv(writer, rs);
+                        } else {
+                            writeNdjson(writer, rs);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, userId, start, end);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(Integer.toString(rs.getInt(1)));
+        writer.write(',');
+        writer.write(Integer.toString(rs.getInt(2)));
+        writer.write(',');
+        writeCsvField(writer, rs.getString(3));
+        writer.write(',');
+        writer.write(timestamp(rs.getTimestamp(4)));
+        writer.write(',');
+        writer.write(timestamp(rs.getTimestamp(5)));
+        writer.write(',');
+        BigDecimal hours = rs.getBigDecimal(6);
+        writer.write(hours == null ? "" : hours.toPlainString());
+        writer.write(',');
+        writer.write(rs.getString(7));
+        writer.write('\n');
+    }
+
+    private static void writeNdjson(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write("{\"recordId\":");
+        writer.write(Integer.toString(rs.getInt(1)));
+        writer.write(",\"employeeId\":");
+        writer.write(Integer.toString(rs.getInt(2)));
+        writer.write(",\"employeeName\":");
+        writeJsonString(writer, rs.getString(3));
+        writer.write(",\"clockInAt\":");
+        writeJsonString(writer, timestampOrNull(rs.getTimestamp(4)));
+        writer.write(",\"clockOutAt\":");
+        writeJsonString(writer, timestampOrNull(rs.getTimestamp(5)));
+        writer.write(",\"hoursWorked\":");
+        BigDecimal hours = rs.getBigDecimal(6);
+        writer.write(hours == null ? "null" : hours.toPlainString());
+        writer.write(",\"status\":");
+        writeJsonString(writer, rs.getString(7));
+        writer.write("}\n");
+    }
+
+    private static String timestamp(Timestamp value) {
+        return value == null ? "" : TIMESTAMP_FORMAT.format(value.toLocalDateTime());
+    }
+
+    private static String timestampOrNull(Timestamp value) {
+        return value == null ? null : TIMESTAMP_FORMAT.format(value.toLocalDateTime());
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
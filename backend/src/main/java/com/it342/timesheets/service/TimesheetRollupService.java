@@ -0,0 +1,324 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.TrendPointResponse;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.EmployeeDailyRollupRepository;
+import com.it342.timesheets.repository.EmployeeRepository;
+import com.it342.timesheets.repository.EmployerDailyRollupRepository;
+import com.it342.timesheets.repository.EmployerHourlyRollupRepository;
+import com.it342.timesheets.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Time-bucket rollups of worked time: per employee per day, per employer per
+ * day and per employer per hour.
+ * <p>
+ * Clock-out adds the closed shift in its own transaction, split at every
+ * bucket boundary it crosses. A bucket's shift count is the number of shifts
+ * that overlap it. {@link #rebuild(LocalDate, LocalDate)} regenerates a date
+ * range from the raw records; it runs nightly for the most recent days.
+ */
+@Service
+public class TimesheetRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimesheetRollupService.class);
+
+    private static final long SECONDS_PER_HOUR = 3_600;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final String UPSERT_EMPLOYEE_DAY_SQL = """
+            INSERT INTO employee_daily_rollups (employee_id, employer_id, bucket_date, worked_seconds, shift_count)
+            VALUES (?, ?, ?, ?, ?) AS new
+            ON DUPLICATE KEY UPDATE worked_seconds = worked_seconds + new.worked_seconds,
+                                    shift_count = shift_count + new.shift_count""";
+
+    private static final String UPSERT_EMPLOYER_DAY_SQL = """
+            INSERT INTO employer_daily_rollups (employer_id, bucket_date, worked_seconds, shift_count)
+            VALUES (?, ?, ?, ?) AS new
+            ON DUPLICATE KEY UPDATE worked_seconds = worked_seconds + new.worked_seconds,
+                                    shift_count = shift_count + new.shift_count""";
+
+    private static final String UPSERT_EMPLOYER_HOUR_SQL = """
+            INSERT INTO employer_hourly_rollups (employer_id, bucket_start, worked_seconds, shift_count)
+            VALUES (?, ?, ?, ?) AS new
+            ON DUPLICATE KEY UPDATE worked_seconds = worked_seconds + new.worked_seconds,
+                                    shift_count = shift_count + new.shift_count""";
+
+    private static final String CLOSED_SHIFTS_SQL = """
+            SELECT created_by_user_id, employee_id, clock_in_time, clock_out_time
+            FROM timesheet_records
+            WHERE clock_in_time >= ? AND clock_in_time < ? AND status = 'clocked_out' AND clock_out_time > ?""";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeDailyRollupRepository employeeDailyRepository;
+    private final EmployerDailyRollupRepository employerDailyRepository;
+    private final EmployerHourlyRollupRepository employerHourlyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildDays;
+    private final Duration maxShift;
+
+    public TimesheetRollupService(UserRepository userRepository,
+                                  EmployeeRepository employeeRepository,
+                                  EmployeeDailyRollupRepository employeeDailyRepository,
+                                  EmployerDailyRollupRepository employerDailyRepository,
+                                  EmployerHourlyRollupRepository employerHourlyRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  DataSource dataSource,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.rollups.rebuild-days:2}") int rebuildDays,
+                                  @Value("${app.timesheets.auto-clock-out.max-shift-hours:16}") long maxShiftHours) {
+        this.userRepository = userRepository;
+        this.employeeRepository = employeeRepository;
+        this.employeeDailyRepository = employeeDailyRepository;
+        this.employerDailyRepository = employerDailyRepository;
+        this.employerHourlyRepository = employerHourlyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildDays = rebuildDays;
+        this.maxShift = Duration.ofHours(maxShiftHours);
+    }
+
+    /**
+     * Adds a closed shift to the rollups. Must run in the transaction that
+     * closes the record.
+     */
+    public void recordShift(Integer employerId, Integer employeeId, LocalDateTime clockInAt, LocalDateTime clockOutAt) {
+        recordShifts(List.of(new ClosedShift(employerId, employeeId, clockInAt, clockOutAt)));
+    }
+
+    /**
+     * Adds many closed shifts with one upsert batch per rollup table.
+     */
+    public void recordShifts(List<ClosedShift> shifts) {
+        if (shifts.isEmpty()) {
+            return;
+        }
+        Tally tally = new Tally(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (ClosedShift shift : shifts) {
+            tally.add(shift.employerId(), shift.employeeId(), shift.clockInAt(), shift.clockOutAt());
+        }
+        write(tally);
+    }
+
+    @Scheduled(cron = "${app.rollups.rebuild-cron:0 45 3 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(rebuildDays), today);
+    }
+
+    /**
+     * Replaces every bucket between {@code from} and {@code to} inclusive with
+     * totals recomputed from timesheet_records, one day per transaction. A
+     * day's buckets are deleted before its records are read, so a concurrent
+     * clock-out into that day either commits first and is read, or waits on
+     * the deleted rows and adds itself afterwards.
+     * <p>
+     * Only shifts clocked in at most the auto clock-out limit before the day
+     * are read, so a longer shift, possible only with auto clock-out off,
+     * loses the part that falls past the limit.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        long started = System.currentTimeMillis();
+        int buckets = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate date = day;
+            buckets += transactionTemplate.execute(status -> rebuildDay(date));
+        }
+        log.info("Rebuilt {} rollup buckets for {}..{} in {} ms", buckets, from, to, System.currentTimeMillis() - started);
+    }
+
+    private int rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        jdbcTemplate.update("DELETE FROM employee_daily_rollups WHERE bucket_date = ?", Date.valueOf(day));
+        jdbcTemplate.update("DELETE FROM employer_daily_rollups WHERE bucket_date = ?", Date.valueOf(day));
+        jdbcTemplate.update("DELETE FROM employer_hourly_rollups WHERE bucket_start >= ? AND bucket_start < ?",
+                Timestamp.valueOf(start), Timestamp.valueOf(end));
+
+        Tally tally = new Tally(epochSecond(start), epochSecond(end));
+        streamingJdbcTemplate.query(CLOSED_SHIFTS_SQL, rs -> {
+            tally.add(rs.getInt(1), rs.getInt(2),
+                    rs.getTimestamp(3).toLocalDateTime(), rs.getTimestamp(4).toLocalDateTime());
+        }, Timestamp.valueOf(start.minus(maxShift)), Timestamp.valueOf(end), Timestamp.valueOf(start));
+        return write(tally);
+    }
+
+    /**
+     * Worked hours per bucket for the caller's employees, or for one of them
+     * when {@code employeeId} is given. Granularity is "day" or "hour"; hourly
+     * trends are employer-wide.
+     */
+    public List<TrendPointResponse> getTrend(Integer userId, LocalDate from, LocalDate to,
+                                             String granularity, Integer employeeId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can view trends");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) > 366) {
+            throw new RuntimeException("Invalid date range");
+        }
+
+        String unit = granularity == null ? "day" : granularity.trim().toLowerCase(Locale.ROOT);
+        if (unit.equals("hour")) {
+            if (employeeId != null) {
+                throw new RuntimeException("Hourly trends are only available per employer");
+            }
+            if (ChronoUnit.DAYS.between(start, end) > 31) {
+                throw new RuntimeException("Hourly trends are limited to 31 days");
+            }
+            return employerHourlyRepository
+                    .findByEmployerIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                            userId, start.atStartOfDay(), end.plusDays(1).atStartOfDay())
+                    .stream()
+                    .map(rollup -> new TrendPointResponse(rollup.getBucketStart(), hours(rollup.getWorkedSeconds()),
+                            rollup.getShiftCount()))
+                    .toList();
+        }
+        if (!unit.equals("day")) {
+            throw new RuntimeException("Unsupported granularity");
+        }
+        if (employeeId != null) {
+            if (!employeeRepository.existsByEmployeeIdAndCreatedByUser_UserId(employeeId, userId)) {
+                throw new RuntimeException("Employee record not found");
+            }
+            return employeeDailyRepository.findByEmployeeIdAndBucketDateBetweenOrderByBucketDateAsc(employeeId, start, end)
+                    .stream()
+                    .map(rollup -> new TrendPointResponse(rollup.getBucketDate().atStartOfDay(),
+                            hours(rollup.getWorkedSeconds()), rollup.getShiftCount()))
+                    .toList();
+        }
+        return employerDailyRepository.findByEmployerIdAndBucketDateBetweenOrderByBucketDateAsc(userId, start, end)
+                .stream()
+                .map(rollup -> new TrendPointResponse(rollup.getBucketDate().atStartOfDay(),
+                        hours(rollup.getWorkedSeconds()), rollup.getShiftCount()))
+                .toList();
+    }
+
+    private int write(Tally tally) {
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYEE_DAY_SQL, new ArrayList<>(tally.employeeDays.entrySet()), BATCH_SIZE,
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getKey().employeeId());
+                    ps.setInt(2, entry.getKey().employerId());
+                    ps.setDate(3, Date.valueOf(fromEpochSecond(entry.getKey().start()).toLocalDate()));
+                    ps.setLong(4, entry.getValue()[0]);
+                    ps.setLong(5, entry.getValue()[1]);
+                });
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYER_DAY_SQL, new ArrayList<>(tally.employerDays.entrySet()), BATCH_SIZE,
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getKey().employerId());
+                    ps.setDate(2, Date.valueOf(fromEpochSecond(entry.getKey().start()).toLocalDate()));
+                    ps.setLong(3, entry.getValue()[0]);
+                    ps.setLong(4, entry.getValue()[1]);
+                });
+        jdbcTemplate.batchUpdate(UPSERT_EMPLOYER_HOUR_SQL, new ArrayList<>(tally.employerHours.entrySet()), BATCH_SIZE,
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getKey().employerId());
+                    ps.setTimestamp(2, Timestamp.valueOf(fromEpochSecond(entry.getKey().start())));
+                    ps.setLong(3, entry.getValue()[0]);
+                    ps.setLong(4, entry.getValue()[1]);
+                });
+        return tally.employeeDays.size() + tally.employerDays.size() + tally.employerHours.size();
+    }
+
+    static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static BigDecimal hours(long seconds) {
+        return BigDecimal.valueOf(seconds).divide(BigDecimal.valueOf(SECONDS_PER_HOUR), 2, RoundingMode.HALF_UP);
+    }
+
+    public record ClosedShift(Integer employerId, Integer employeeId, LocalDateTime clockInAt, LocalDateTime clockOutAt) {}
+
+    record EmployeeBucket(Integer employeeId, Integer employerId, long start) {}
+
+    record EmployerBucket(Integer employerId, long start) {}
+
+    /**
+     * Accumulates shifts into buckets, clipped to [windowStart, windowEnd).
+     * Each bucket holds {worked seconds, shift count}.
+     */
+    static final class Tally {
+
+        private final long windowStart;
+        private final long windowEnd;
+        final Map<EmployeeBucket, long[]> employeeDays = new HashMap<>();
+        final Map<EmployerBucket, long[]> employerDays = new HashMap<>();
+        final Map<EmployerBucket, long[]> employerHours = new HashMap<>();
+
+        Tally(long windowStart, long windowEnd) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        void add(Integer employerId, Integer employeeId, LocalDateTime clockInAt, LocalDateTime clockOutAt) {
+            long in = epochSecond(clockInAt);
+            // Whole minutes only, as in hours_worked.
+            long out = in + (epochSecond(clockOutAt) - in) / 60 * 60;
+            long start = Math.max(in, windowStart);
+            long end = Math.min(out, windowEnd);
+            split(start, end, SECONDS_PER_DAY, (bucket, seconds) -> {
+                accumulate(employeeDays, new EmployeeBucket(employeeId, employerId, bucket), seconds);
+                accumulate(employerDays, new EmployerBucket(employerId, bucket), seconds);
+            });
+            split(start, end, SECONDS_PER_HOUR, (bucket, seconds) ->
+                    accumulate(employerHours, new EmployerBucket(employerId, bucket), seconds));
+        }
+
+        private static <K> void accumulate(Map<K, long[]> buckets, K key, long seconds) {
+            long[] totals = buckets.computeIfAbsent(key, k -> new long[2]);
+            totals[0] += seconds;
+            totals[1]++;
+        }
+    }
+
+    interface BucketConsumer {
+        void accept(long bucketStart, long seconds);
+    }
+
+    static void split(long start, long end, long bucketSeconds, BucketConsumer consumer) {
+        while (start < end) {
+            long bucketStart = Math.floorDiv(start, bucketSeconds) * bucketSeconds;
+            long segmentEnd = Math.min(end, bucketStart + bucketSeconds);
+            consumer.accept(bucketStart, segmentEnd - start);
+            start = segmentEnd;
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package com.it342.timesheets.service;
 
+import com.it342.timesheets.dto.ClockedInEmployeeResponse;
+import com.it342.timesheets.dto.EmployeeContext;
+import com.it342.timesheets.dto.EmployeeSummaryResponse;
+import com.it342.timesheets.dto.EmployerSummaryResponse;
+import com.it342.timesheets.dto.PresenceResponse;
 import com.it342.timesheets.dto.TimesheetDashboardResponse;
 import com.it342.timesheets.dto.TimesheetRecordResponse;
 import com.it342.timesheets.entity.Employee;
+import com.it342.timesheets.entity.EmployeeHoursTotal;
 import com.it342.timesheets.entity.TimesheetRecord;
 import com.it342.timesheets.entity.User;
 import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.EmployeeHoursTotalRepository;
 import com.it342.timesheets.repository.EmployeeRepository;
 import com.it342.timesheets.repository.TimesheetRecordRepository;
 import com.it342.timesheets.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -24,106 +37,201 @@ public class TimesheetService {
     private final UserRepository userRepository;
     private final EmployeeRepository employeeRepository;
     private final TimesheetRecordRepository timesheetRecordRepository;
+    private final EmployeeHoursTotalRepository employeeHoursTotalRepository;
+    private final PresenceRegistry presenceRegistry;
+    private final EmployeeContextCache employeeContexts;
+    private final TimesheetRollupService rollupService;
+    private final ClockEventLog clockEventLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public TimesheetService(UserRepository userRepository,
                             EmployeeRepository employeeRepository,
-                            TimesheetRecordRepository timesheetRecordRepository) {
+                            TimesheetRecordRepository timesheetRecordRepository,
+                            EmployeeHoursTotalRepository employeeHoursTotalRepository,
+                            PresenceRegistry presenceRegistry,
+                            EmployeeContextCache employeeContexts,
+                            TimesheetRollupService rollupService,
+                            ClockEventLog clockEventLog,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.timesheets.page-size:50}") int defaultPageSize,
+                            @Value("${app.timesheets.max-page-size:200}") int maxPageSize) {
         this.userRepository = userRepository;
         this.employeeRepository = employeeRepository;
         this.timesheetRecordRepository = timesheetRecordRepository;
+        this.employeeHoursTotalRepository = employeeHoursTotalRepository;
+        this.presenceRegistry = presenceRegistry;
+        this.employeeContexts = employeeContexts;
+        this.rollupService = rollupService;
+        this.clockEventLog = clockEventLog;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Transactional(readOnly = true)
-    public TimesheetDashboardResponse getDashboard(Integer userId) {
-        User user = getUser(userId);
+    public TimesheetDashboardResponse getDashboard(Integer userId, String cursor, Integer limit) {
+        RecordCursor after = cursor == null || cursor.isBlank() ? null : RecordCursor.decode(cursor);
+        int size = pageSize(limit);
+        Limit pageLimit = Limit.of(size + 1);
 
-        if (user.getRole() == UserRole.EMPLOYER) {
+        EmployeeContext employee = employeeContexts.get(userId);
+        if (employee == null) {
+            User user = getUser(userId);
+            if (user.getRole() != UserRole.EMPLOYER) {
+                throw missingEmployee(user);
+            }
             List<String> employees = employeeRepository.findByCreatedByUser_UserIdAndIsActiveTrueOrderByEmployeeNameAsc(userId)
                     .stream()
                 .map(Employee::getEmployeeName)
                     .toList();
-            List<TimesheetRecordResponse> records = timesheetRecordRepository.findByCreatedByUser_UserIdOrderByClockInAtDesc(userId)
-                    .stream()
-                    .map(this::toRecordResponse)
-                    .toList();
-            return new TimesheetDashboardResponse(user.getRole().name(), null, BigDecimal.ZERO, false, employees, records);
-        }
-
-        if (user.getEmployer() == null) {
-            throw new RuntimeException("Employee account is missing employer assignment");
+            List<TimesheetRecordResponse> page = after == null
+                    ? timesheetRecordRepository.findPageByEmployer(userId, pageLimit)
+                    : timesheetRecordRepository.findPageByEmployerAfter(userId, after.clockInAt(), after.recordId(), pageLimit);
+            return new TimesheetDashboardResponse(user.getRole().name(), null, BigDecimal.ZERO, false, employees,
+                    toRecordResponses(page, size), nextCursor(page, size));
         }
 
-        Employee employee = getEmployeeForUser(user);
-
-        List<TimesheetRecordResponse> records = timesheetRecordRepository.findByEmployee_EmployeeIdOrderByClockInAtDesc(employee.getEmployeeId())
-                .stream()
-                .map(this::toRecordResponse)
-                .toList();
+        List<TimesheetRecordResponse> page = after == null
+                ? timesheetRecordRepository.findPageByEmployee(employee.employeeId(), pageLimit)
+                : timesheetRecordRepository.findPageByEmployeeAfter(employee.employeeId(), after.clockInAt(), after.recordId(), pageLimit);
 
-        BigDecimal accumulatedHours = records.stream()
-                .map(TimesheetRecordResponse::getHoursWorked)
-                .filter(value -> value != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal accumulatedHours = employeeHoursTotalRepository.findById(employee.employeeId())
+                .map(EmployeeHoursTotal::getTotalHours)
+                .orElse(BigDecimal.ZERO);
 
-        boolean clockedIn = timesheetRecordRepository
-            .findFirstByEmployee_EmployeeIdAndStatusOrderByClockInAtDesc(employee.getEmployeeId(), "clocked_in")
-            .isPresent();
+        boolean clockedIn = presenceRegistry.isClockedIn(employee.employerId(), employee.employeeId());
 
         return new TimesheetDashboardResponse(
-                user.getRole().name(),
-                user.getEmployer().getUsername(),
+                UserRole.EMPLOYEE.name(),
+                employee.employerName(),
                 accumulatedHours,
                 clockedIn,
                 List.of(),
-                records
+                toRecordResponses(page, size),
+                nextCursor(page, size)
         );
     }
 
-    @Transactional
-    public void clockIn(Integer userId) {
+    public PresenceResponse getPresence(Integer userId) {
+        User user = getUser(userId);
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can view presence");
+        }
+        List<ClockedInEmployeeResponse> clockedIn = presenceRegistry.clockedIn(userId);
+        return new PresenceResponse(clockedIn.size(), clockedIn);
+    }
+
+    /**
+     * Per-employee totals for records clocked in between {@code from} and
+     * {@code to} inclusive, aggregated by the database in one query. The
+     * range defaults to the last seven days.
+     */
+    @Transactional(readOnly = true)
+    public EmployerSummaryResponse getSummary(Integer userId, LocalDate from, LocalDate to) {
         User user = getUser(userId);
-        requireEmployee(user);
-        Employee employee = getEmployeeForUser(user);
+        if (user.getRole() != UserRole.EMPLOYER) {
+            throw new RuntimeException("Only employers can view summaries");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Invalid date range");
+        }
 
-        if (timesheetRecordRepository.findFirstByEmployee_EmployeeIdAndStatusOrderByClockInAtDesc(employee.getEmployeeId(), "clocked_in").isPresent()) {
-            throw new RuntimeException("Already clocked in");
+        List<EmployeeSummaryResponse> employees = new ArrayList<>();
+        BigDecimal totalHours = BigDecimal.ZERO;
+        int clockedInCount = 0;
+        for (Object[] row : employeeRepository.summarizeByEmployer(userId, start.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+            Integer employeeId = (Integer) row[0];
+            BigDecimal hours = row[2] == null ? BigDecimal.ZERO : (BigDecimal) row[2];
+            boolean clockedIn = presenceRegistry.isClockedIn(userId, employeeId);
+            employees.add(new EmployeeSummaryResponse(employeeId, (String) row[1], hours, ((Number) row[3]).longValue(),
+                    (LocalDateTime) row[4], clockedIn ? "clocked_in" : "clocked_out"));
+            totalHours = totalHours.add(hours);
+            if (clockedIn) {
+                clockedInCount++;
+            }
         }
+        return new EmployerSummaryResponse(start, end, totalHours, clockedInCount, employees);
+    }
+
+    /**
+     * Opens a shift with a single insert. The unique open-shift key rejects a
+     * second open record for the same employee, however the requests race.
+     */
+    @Transactional
+    public void clockIn(Integer userId) {
+        EmployeeContext employee = requireEmployee(userId);
 
         TimesheetRecord record = new TimesheetRecord();
-        record.setEmployee(employee);
-        record.setCreatedByUser(user.getEmployer());
+        record.setEmployee(employeeRepository.getReferenceById(employee.employeeId()));
+        record.setCreatedByUser(userRepository.getReferenceById(employee.employerId()));
         record.setClockInAt(LocalDateTime.now());
         record.setStatus("clocked_in");
-        timesheetRecordRepository.save(record);
+        try {
+            timesheetRecordRepository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, "uk_timesheet_records_open_shift")) {
+                throw new RuntimeException("Already clocked in");
+            }
+            throw e;
+        }
+        ClockEvent event = ClockEvent.clockIn(employee.employerId(), employee.employeeId(),
+                employee.employeeName(), record.getRecordId(), record.getClockInAt());
+        clockEventLog.append(event);
+        eventPublisher.publishEvent(event);
     }
 
+    /**
+     * Closes the open shift with one conditional UPDATE. The open record comes
+     * from the presence registry; the query is only needed when the registry
+     * has not yet seen another request's commit. The status guard makes a
+     * concurrent second clock-out update nothing.
+     */
     @Transactional
     public void clockOut(Integer userId) {
-        User user = getUser(userId);
-        requireEmployee(user);
-        Employee employee = getEmployeeForUser(user);
+        EmployeeContext employee = requireEmployee(userId);
+        LocalDateTime clockOutAt = LocalDateTime.now();
 
-        TimesheetRecord record = timesheetRecordRepository
-            .findFirstByEmployee_EmployeeIdAndStatusOrderByClockInAtDesc(employee.getEmployeeId(), "clocked_in")
-                .orElseThrow(() -> new RuntimeException("No active clock-in record found"));
+        PresenceRegistry.Shift shift = presenceRegistry.openShift(employee.employerId(), employee.employeeId());
+        if (shift == null || !closeShift(shift.recordId(), shift.clockInAt(), clockOutAt)) {
+            TimesheetRecord record = timesheetRecordRepository
+                    .findFirstByEmployee_EmployeeIdAndStatusOrderByClockInAtDesc(employee.employeeId(), "clocked_in")
+                    .orElseThrow(() -> new RuntimeException("No active clock-in record found"));
+            if (!closeShift(record.getRecordId(), record.getClockInAt(), clockOutAt)) {
+                throw new RuntimeException("No active clock-in record found");
+            }
+            shift = new PresenceRegistry.Shift(record.getRecordId(), employee.employeeName(), record.getClockInAt(), false);
+        }
 
-        LocalDateTime clockOutAt = LocalDateTime.now();
-        BigDecimal minutesWorked = BigDecimal.valueOf(Duration.between(record.getClockInAt(), clockOutAt).toMinutes());
-        BigDecimal hoursWorked = minutesWorked.divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+        BigDecimal hoursWorked = hoursBetween(shift.clockInAt(), clockOutAt);
+        employeeHoursTotalRepository.addShift(employee.employeeId(), hoursWorked, clockOutAt);
+        rollupService.recordShift(employee.employerId(), employee.employeeId(), shift.clockInAt(), clockOutAt);
+        ClockEvent event = ClockEvent.clockOut(employee.employerId(), employee.employeeId(),
+                employee.employeeName(), shift.recordId(), shift.clockInAt(), clockOutAt, hoursWorked);
+        clockEventLog.append(event);
+        eventPublisher.publishEvent(event);
+    }
 
-        record.setClockOutAt(clockOutAt);
-        record.setHoursWorked(hoursWorked);
-        record.setStatus("clocked_out");
-        timesheetRecordRepository.save(record);
+    private boolean closeShift(Integer recordId, LocalDateTime clockInAt, LocalDateTime clockOutAt) {
+        return timesheetRecordRepository.closeShift(recordId, clockOutAt, hoursBetween(clockInAt, clockOutAt)) == 1;
     }
 
-    private Employee getEmployeeForUser(User user) {
-        if (user.getEmployer() == null) {
-            throw new RuntimeException("Employee account is missing employer assignment");
+    // Hibernate and the driver both name the violated key in their messages.
+    static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(constraint)) {
+                return true;
+            }
         }
-        return employeeRepository
-                .findTopByEmployeeNameAndCreatedByUser_UserIdOrderByEmployeeIdDesc(user.getUsername(), user.getEmployer().getUserId())
-                .orElseThrow(() -> new RuntimeException("Employee record not found"));
+        return false;
+    }
+
+    static BigDecimal hoursBetween(LocalDateTime clockInAt, LocalDateTime clockOutAt) {
+        BigDecimal minutesWorked = BigDecimal.valueOf(Duration.between(clockInAt, clockOutAt).toMinutes());
+        return minutesWorked.divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
     }
 
     private User getUser(Integer userId) {
@@ -131,23 +239,46 @@ public class TimesheetService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    private void requireEmployee(User user) {
+    /**
+     * The caller's employee context; the users row is only read to explain
+     * why a caller has none.
+     */
+    private EmployeeContext requireEmployee(Integer userId) {
+        EmployeeContext employee = employeeContexts.get(userId);
+        if (employee != null) {
+            return employee;
+        }
+        User user = getUser(userId);
         if (user.getRole() != UserRole.EMPLOYEE) {
             throw new RuntimeException("Only employees can clock in/out");
         }
+        throw missingEmployee(user);
+    }
+
+    private static RuntimeException missingEmployee(User user) {
         if (user.getEmployer() == null) {
-            throw new RuntimeException("Employee account is missing employer assignment");
+            return new RuntimeException("Employee account is missing employer assignment");
         }
+        return new RuntimeException("Employee record not found");
     }
 
-    private TimesheetRecordResponse toRecordResponse(TimesheetRecord record) {
-        return new TimesheetRecordResponse(
-                record.getRecordId(),
-                record.getEmployee().getEmployeeName(),
-                record.getCreatedByUser().getUsername(),
-                record.getClockInAt(),
-                record.getClockOutAt(),
-                record.getHoursWorked()
-        );
+    private int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    // Pages are fetched with one extra row; its presence means there is a next page.
+    private List<TimesheetRecordResponse> toRecordResponses(List<TimesheetRecordResponse> page, int size) {
+        return page.size() > size ? page.subList(0, size) : page;
+    }
+
+    private String nextCursor(List<TimesheetRecordResponse> page, int size) {
+        if (page.size() <= size) {
+            return null;
+        }
+        TimesheetRecordResponse last = page.get(size - 1);
+        return new RecordCursor(last.getClockInAt(), last.getRecordId()).encode();
     }
 }
@@ -0,0 +1,42 @@
+package com.it342.timesheets.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.it342.timesheets.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of {@link UserResponse} by user id for /api/user/me.
+ * Anything that changes a user's profile must call {@link #evict(Integer)}.
+ * Hit and miss counts are published as the "user.profile" cache metrics.
+ */
+@Component
+public class UserProfileCache {
+
+    private final Cache<Integer, UserResponse> profiles;
+
+    public UserProfileCache(MeterRegistry meterRegistry,
+                            @Value("${app.user.profile-cache.max-size:10000}") long maxSize,
+                            @Value("${app.user.profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "user.profile");
+    }
+
+    public UserResponse get(Integer userId, Function<Integer, UserResponse> loader) {
+        return profiles.get(userId, loader);
+    }
+
+    public void evict(Integer userId) {
+        profiles.invalidate(userId);
+    }
+}
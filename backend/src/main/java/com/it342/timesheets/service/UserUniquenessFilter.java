@@ -0,0 +1,150 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bloom filters over existing usernames and emails, used to skip the
+ * existence queries during registration when a name is definitely free.
+ * <p>
+ * Only a "might exist" answer goes to the database, and the unique
+ * constraints on users remain the final guard, since users registered on
+ * other nodes are never in this node's filters. Until the startup scan has
+ * finished every check goes to the database.
+ */
+@Component
+public class UserUniquenessFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserUniquenessFilter.class);
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    private volatile boolean ready;
+
+    private final Object pendingLock = new Object();
+    private List<String[]> pending;
+
+    private final Counter skippedQueries;
+    private final Counter databaseChecks;
+    private final Counter falsePositives;
+
+    public UserUniquenessFilter(UserRepository userRepository,
+                                DataSource dataSource,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.registration.bloom.expected-users:1000000}") long expectedUsers,
+                                @Value("${app.registration.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+
+        this.skippedQueries = Counter.builder("registration.bloom.skipped").register(meterRegistry);
+        this.databaseChecks = Counter.builder("registration.bloom.database.checks").register(meterRegistry);
+        this.falsePositives = Counter.builder("registration.bloom.false.positives").register(meterRegistry);
+        Gauge.builder("registration.bloom.observed.false.positive.rate", this, UserUniquenessFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("registration.bloom.expected.false.positive.rate", this, f -> f.usernames.expectedFalsePositiveRate())
+                .register(meterRegistry);
+        Gauge.builder("registration.bloom.memory", this, f -> f.usernames.sizeInBytes() + f.emails.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        Long total = streamingJdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        long capacity = Math.max(expectedUsers, total == null ? 0 : total * 2);
+        BloomFilter usernameFilter = new BloomFilter(capacity, falsePositiveRate);
+        BloomFilter emailFilter = new BloomFilter(capacity, falsePositiveRate);
+
+        // Users recorded from here on may be missed by the scan, so they are replayed before publishing.
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+        }
+        streamingJdbcTemplate.query("SELECT username, email FROM users", rs -> {
+            usernameFilter.put(normalize(rs.getString(1)));
+            emailFilter.put(normalize(rs.getString(2)));
+        });
+        synchronized (pendingLock) {
+            for (String[] user : pending) {
+                usernameFilter.put(normalize(user[0]));
+                emailFilter.put(normalize(user[1]));
+            }
+            pending = null;
+            usernames = usernameFilter;
+            emails = emailFilter;
+        }
+        ready = true;
+        log.info("Built registration Bloom filters over {} users in {} ms ({} bytes, {} hashes)",
+                total, System.currentTimeMillis() - started,
+                usernameFilter.sizeInBytes() + emailFilter.sizeInBytes(), usernameFilter.getHashCount());
+    }
+
+    public boolean usernameExists(String username) {
+        if (ready && !usernames.mightContain(normalize(username))) {
+            skippedQueries.increment();
+            return false;
+        }
+        return confirm(userRepository.existsByUsername(username));
+    }
+
+    public boolean emailExists(String email) {
+        if (ready && !emails.mightContain(normalize(email))) {
+            skippedQueries.increment();
+            return false;
+        }
+        return confirm(userRepository.existsByEmail(email));
+    }
+
+    public void recordUser(String username, String email) {
+        synchronized (pendingLock) {
+            if (pending != null) {
+                pending.add(new String[]{username, email});
+            }
+        }
+        usernames.put(normalize(username));
+        emails.put(normalize(email));
+    }
+
+    private boolean confirm(boolean exists) {
+        if (ready) {
+            databaseChecks.increment();
+            if (!exists) {
+                falsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    private double observedFalsePositiveRate() {
+        double checks = databaseChecks.count() + skippedQueries.count();
+        return checks == 0 ? 0 : falsePositives.count() / checks;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
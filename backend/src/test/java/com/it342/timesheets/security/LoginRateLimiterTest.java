@@ -0,0 +1,95 @@
+package com.it342.timesheets.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void usernameBucketEmptiesAndRefillsAtTheConfiguredRate() {
+        // 3 attempts, then one more every 6 seconds.
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 10, 100, 100, 4, 1000);
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("alice", "10.0.0.1", now));
+        }
+        assertFalse(limiter.tryAcquire("alice", "10.0.0.2", now));
+        assertTrue(limiter.tryAcquire("bob", "10.0.0.1", now));
+
+        assertFalse(limiter.tryAcquire("alice", "10.0.0.1", now + 5 * SECOND));
+        assertTrue(limiter.tryAcquire("alice", "10.0.0.1", now + 7 * SECOND));
+        assertFalse(limiter.tryAcquire("alice", "10.0.0.1", now + 7 * SECOND));
+        // Refill stops at capacity however long the bucket sat idle.
+        long later = now + 3600 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("alice", "10.0.0.1", later));
+        }
+        assertFalse(limiter.tryAcquire("alice", "10.0.0.1", later));
+    }
+
+    @Test
+    void addressBucketLimitsAcrossUsernames() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 2, 2, 4, 1000);
+        assertTrue(limiter.tryAcquire("a", "10.0.0.1", 0));
+        assertTrue(limiter.tryAcquire("b", "10.0.0.1", 0));
+        assertFalse(limiter.tryAcquire("c", "10.0.0.1", 0));
+        assertTrue(limiter.tryAcquire("c", "10.0.0.2", 0));
+    }
+
+    @Test
+    void fullStripeDropsItsLeastRecentlyUsedBucket() {
+        // Two stripes of two buckets each; the three keys all hash to stripe 0.
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 100, 100, 2, 4);
+        String[] keys = keysInStripeZero(3);
+        String alice = keys[0], bob = keys[1], carol = keys[2];
+        assertTrue(limiter.tryAcquire(alice, null, 0));
+        assertTrue(limiter.tryAcquire(bob, null, 0));
+        assertFalse(limiter.tryAcquire(alice, null, 0));
+
+        // alice was used last, so carol's bucket pushes out bob's and bob starts full again.
+        assertTrue(limiter.tryAcquire(carol, null, 0));
+        assertTrue(limiter.tryAcquire(bob, null, 0));
+        assertFalse(limiter.tryAcquire(carol, null, 0));
+    }
+
+    @Test
+    void sweepKeepsBucketsThatHaveNotRefilled() {
+        LoginRateLimiter limiter = new LoginRateLimiter(2, 2, 100, 100, 1, 100);
+        assertTrue(limiter.tryAcquire("alice", null, 0));
+        assertTrue(limiter.tryAcquire("alice", null, 0));
+
+        limiter.evictIdle(30 * SECOND);
+        assertFalse(limiter.tryAcquire("alice", null, 10 * SECOND));
+
+        // Fully refilled after a minute, so dropping it changes nothing.
+        limiter.evictIdle(80 * SECOND);
+        assertTrue(limiter.tryAcquire("alice", null, 80 * SECOND));
+        assertTrue(limiter.tryAcquire("alice", null, 80 * SECOND));
+        assertFalse(limiter.tryAcquire("alice", null, 80 * SECOND));
+    }
+
+    @Test
+    void retryAfterIsTheSlowerRefillInterval() {
+        assertEquals(6, new LoginRateLimiter(10, 10, 50, 50, 4, 1000).getRetryAfterSeconds());
+        assertEquals(60, new LoginRateLimiter(10, 10, 50, 1, 4, 1000).getRetryAfterSeconds());
+        assertEquals(1, new LoginRateLimiter(10, 120, 50, 90, 4, 1000).getRetryAfterSeconds());
+    }
+
+    private static String[] keysInStripeZero(int count) {
+        String[] keys = new String[count];
+        int found = 0;
+        for (int i = 0; found < count; i++) {
+            String key = "user" + i;
+            int h = key.hashCode();
+            if (((h ^ (h >>> 16)) & 1) == 0) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
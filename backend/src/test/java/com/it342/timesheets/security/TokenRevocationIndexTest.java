@@ -0,0 +1,104 @@
+package com.it342.timesheets.security;
+
+import com.it342.timesheets.repository.UserRepository;
+import com.it342.timesheets.repository.UserSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationIndexTest {
+
+    private static final long LIFETIME_MS = 3_600_000L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSessionRepository sessionRepository = mock(UserSessionRepository.class);
+    private final JwtUtil jwtUtil = new JwtUtil("0123456789abcdef0123456789abcdef", LIFETIME_MS, 100);
+    private TokenRevocationIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        when(userRepository.findDisabledUserIds()).thenReturn(List.of());
+        when(sessionRepository.findInactiveTokensCreatedAfter(any())).thenReturn(List.of());
+        index = new TokenRevocationIndex(userRepository, sessionRepository, jwtUtil);
+    }
+
+    @Test
+    void revokesOnlyTheTokenWithThatDigest() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        VerifiedToken loggedOut = token("a", 1, issuedAt);
+        VerifiedToken other = token("b", 1, issuedAt);
+
+        index.revokeToken(loggedOut);
+
+        assertTrue(index.isRevoked(loggedOut));
+        assertFalse(index.isRevoked(other));
+    }
+
+    @Test
+    void cutoffRevokesOlderTokensButNotThoseFromTheSameSecond() {
+        Instant login = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        index.revokeTokensIssuedBefore(1, login.plusMillis(400));
+
+        assertTrue(index.isRevoked(token("old", 1, login.minusSeconds(1))));
+        assertFalse(index.isRevoked(token("same", 1, login)));
+        assertFalse(index.isRevoked(token("other-user", 2, login.minusSeconds(1))));
+
+        // An older cut-off arriving late does not move the existing one back.
+        index.revokeTokensIssuedBefore(1, login.minusSeconds(10));
+        assertTrue(index.isRevoked(token("old", 1, login.minusSeconds(1))));
+    }
+
+    @Test
+    void disabledUserLosesEveryToken() {
+        Instant issuedAt = Instant.now();
+        assertFalse(index.isUserDisabled(3));
+
+        index.disableUser(3);
+
+        assertTrue(index.isUserDisabled(3));
+        assertTrue(index.isRevoked(token("a", 3, issuedAt)));
+        assertFalse(index.isRevoked(token("a", 4, issuedAt)));
+    }
+
+    @Test
+    void loadRestoresLoggedOutTokensAndDisabledUsers() {
+        String loggedOut = jwtUtil.generateToken(5);
+        String active = jwtUtil.generateToken(6);
+        when(userRepository.findDisabledUserIds()).thenReturn(List.of(7));
+        when(sessionRepository.findInactiveTokensCreatedAfter(any()))
+                .thenReturn(List.<Object[]>of(new Object[] {loggedOut, LocalDateTime.now()}));
+
+        index.load();
+
+        assertTrue(index.isRevoked(jwtUtil.verifyToken(loggedOut)));
+        assertFalse(index.isRevoked(jwtUtil.verifyToken(active)));
+        assertTrue(index.isUserDisabled(7));
+    }
+
+    @Test
+    void sweepDropsEntriesWhoseTokensHaveExpired() {
+        Instant longAgo = Instant.now().minusMillis(2 * LIFETIME_MS);
+        VerifiedToken expired = token("expired", 1, longAgo);
+        index.revokeToken(expired);
+        index.revokeTokensIssuedBefore(2, longAgo);
+
+        index.evictExpired();
+
+        assertFalse(index.isRevoked(expired));
+        assertFalse(index.isRevoked(token("older", 2, longAgo.minusSeconds(1))));
+    }
+
+    private static VerifiedToken token(String token, Integer userId, Instant issuedAt) {
+        return new VerifiedToken(JwtUtil.digest(token), userId, issuedAt, issuedAt.plusMillis(LIFETIME_MS));
+    }
+}
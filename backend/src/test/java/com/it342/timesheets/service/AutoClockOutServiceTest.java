@@ -0,0 +1,92 @@
+package com.it342.timesheets.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AutoClockOutServiceTest {
+
+    private static final int SHIFTS = 5;
+
+    private final PresenceRegistry presenceRegistry = mock(PresenceRegistry.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private AutoClockOutService service;
+
+    @BeforeEach
+    void armForgottenShifts() {
+        LocalDateTime clockInAt = LocalDateTime.now().minusHours(20);
+        doAnswer(invocation -> {
+            PresenceRegistry.OpenShiftConsumer consumer = invocation.getArgument(0);
+            for (int i = 1; i <= SHIFTS; i++) {
+                consumer.accept(1, i, new PresenceRegistry.Shift(100 + i, "employee" + i, clockInAt, true));
+            }
+            return null;
+        }).when(presenceRegistry).forEachOpenShift(any());
+
+        service = new AutoClockOutService(presenceRegistry, mock(TimesheetRollupService.class),
+                mock(ClockEventLog.class), eventPublisher, jdbcTemplate, transactionTemplate,
+                new SimpleMeterRegistry(), true, 16, 1, 1024, 2);
+        service.load();
+    }
+
+    @Test
+    void failedBatchAndTheRestAreReArmedAndClosedOnTheNextTick() throws InterruptedException {
+        when(transactionTemplate.execute(any())).thenThrow(new CannotCreateTransactionException("database down"));
+        tick();
+
+        verify(transactionTemplate, times(1)).execute(any());
+        assertEquals(SHIFTS, service.armed());
+
+        doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[invocation.<Collection<?>>getArgument(1).size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][]{counts};
+                });
+        tick();
+
+        assertEquals(0, service.armed());
+        verify(eventPublisher, times(SHIFTS)).publishEvent(any(ClockEvent.class));
+    }
+
+    @Test
+    void failureInsideTheTransactionIsReArmedToo() throws InterruptedException {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("unexpected"));
+        tick();
+
+        assertEquals(SHIFTS, service.armed());
+    }
+
+    // The overdue shifts are due on the tick after arming; ticks here are 1 ms.
+    private void tick() throws InterruptedException {
+        Thread.sleep(5);
+        service.closeExpired();
+    }
+}
@@ -0,0 +1,17 @@
+package com.it342.timesheets.service;
+
+/**
+ * Shared bits for the tests tagged "benchmark".
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    // Printed with every result so figures can be compared across machines.
+    static String environment() {
+        return String.format("%d cpus, Java %s, %s %s",
+                Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"),
+                System.getProperty("os.name"), System.getProperty("os.arch"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Insert and probe cost at millions of users. Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+class BloomFilterBenchmarkTest {
+
+    private static final int USERS = 3_000_000;
+    private static final int PROBES = 1_000_000;
+    private static final double TARGET_RATE = 0.01;
+
+    @Test
+    void insertAndProbeAtMillionsOfUsers() {
+        BloomFilter filter = new BloomFilter(USERS, TARGET_RATE);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        long insertNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("newcomer" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        long probeNanos = System.nanoTime() - started;
+
+        System.out.printf("bloom filter, %d users (%s): %.2f MB, %d hashes, insert %.0f ns/op, probe %.0f ns/op, "
+                        + "false positives %.4f observed / %.4f expected%n",
+                USERS, Benchmarks.environment(), filter.sizeInBytes() / 1048576d, filter.getHashCount(),
+                (double) insertNanos / USERS, (double) probeNanos / PROBES,
+                (double) falsePositives / PROBES, filter.expectedFalsePositiveRate());
+    }
+}
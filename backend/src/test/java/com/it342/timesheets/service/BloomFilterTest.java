@@ -0,0 +1,31 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int USERS = 100_000;
+    private static final int PROBES = 100_000;
+    private static final double TARGET_RATE = 0.01;
+
+    @Test
+    void noFalseNegativesAndFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(USERS, TARGET_RATE);
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("newcomer" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue((double) falsePositives / PROBES < TARGET_RATE * 1.5);
+    }
+}
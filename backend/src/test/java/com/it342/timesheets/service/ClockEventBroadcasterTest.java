@@ -0,0 +1,204 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockEventMessage;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClockEventBroadcasterTest {
+
+    private static final long STALL_MS = 1_000;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch nextGate = new CountDownLatch(0);
+    private ClockEventBroadcaster broadcaster;
+
+    @AfterEach
+    void shutdown() {
+        emitters.forEach(emitter -> emitter.gate.countDown());
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void deliversEachSubscribersEventsInOrder() throws Exception {
+        broadcaster = broadcaster(4, 1000);
+        RecordingEmitter first = subscribe(1);
+        RecordingEmitter second = subscribe(1);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int record = 1; record <= 500; record++) {
+            broadcaster.onClockEvent(clockIn(1, record));
+            expected.add(record);
+        }
+
+        awaitTrue(() -> first.records.size() == 500 && second.records.size() == 500);
+        assertEquals(expected, first.records);
+        assertEquals(expected, second.records);
+    }
+
+    @Test
+    void disconnectsSubscriberWhoseBufferOverflows() throws Exception {
+        broadcaster = broadcaster(2, 4);
+        nextGate = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(1);
+        // The opening heartbeat is taken off the buffer and its send is held.
+        awaitTrue(() -> slow.sendsStarted.getCount() == 0);
+
+        for (int record = 1; record <= 5; record++) {
+            broadcaster.onClockEvent(clockIn(1, record));
+        }
+
+        assertEquals(1, meterRegistry.get("events.sse.evicted").counter().count());
+        assertEquals(0, subscribers());
+        assertFalse(slow.completed.await(50, TimeUnit.MILLISECONDS));
+        slow.gate.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.records.isEmpty());
+    }
+
+    @Test
+    void removesSubscriberOnCompletionAndOnError() throws Exception {
+        broadcaster = broadcaster(2, 16);
+        RecordingEmitter done = subscribe(1);
+        RecordingEmitter failed = subscribe(1);
+        RecordingEmitter open = subscribe(1);
+        assertEquals(3, subscribers());
+
+        done.completion.run();
+        failed.error.accept(new IOException("Broken pipe"));
+        assertEquals(1, subscribers());
+        assertTrue(failed.completed.await(5, TimeUnit.SECONDS));
+
+        broadcaster.onClockEvent(clockIn(1, 7));
+        awaitTrue(() -> open.records.size() == 1);
+        assertTrue(done.records.isEmpty());
+        assertTrue(failed.records.isEmpty());
+    }
+
+    @Test
+    void heartbeatEvictsStalledSubscriberWithoutStarvingOthers() throws Exception {
+        broadcaster = broadcaster(1, 16);
+        nextGate = new CountDownLatch(1);
+        RecordingEmitter stuck = subscribe(1);
+        awaitTrue(() -> stuck.sendsStarted.getCount() == 0);
+        nextGate = new CountDownLatch(0);
+        RecordingEmitter healthy = subscribe(2);
+
+        broadcaster.heartbeat(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2 * STALL_MS));
+        assertEquals(1, meterRegistry.get("events.sse.stalled").counter().count());
+        assertEquals(1, subscribers());
+
+        // The only configured sender thread is still blocked in the stuck write.
+        broadcaster.onClockEvent(clockIn(2, 9));
+        awaitTrue(() -> healthy.records.equals(List.of(9)));
+
+        stuck.gate.countDown();
+        assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private ClockEventBroadcaster broadcaster(int senderThreads, int bufferSize) {
+        User employer = new User();
+        employer.setRole(UserRole.EMPLOYER);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(employer));
+        return new ClockEventBroadcaster(userRepository, meterRegistry, senderThreads, bufferSize,
+                60_000, STALL_MS, 100) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter(nextGate);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(Integer employerId) {
+        return (RecordingEmitter) broadcaster.subscribe(employerId);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("events.sse.subscribers").gauge().value();
+    }
+
+    private static ClockEvent clockIn(Integer employerId, Integer recordId) {
+        return ClockEvent.clockIn(employerId, 100, "Employee", recordId, LocalDateTime.of(2024, 1, 1, 9, 0));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(5);
+        }
+    }
+
+    // Records delivered events; sends wait on the gate, so a test can hold a write open.
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<Integer> records = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate;
+        final CountDownLatch sendsStarted = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile Runnable completion;
+        volatile Consumer<Throwable> error;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendsStarted.countDown();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof ClockEventMessage message) {
+                    records.add(message.getRecordId());
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completion = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            this.error = callback;
+        }
+    }
+}
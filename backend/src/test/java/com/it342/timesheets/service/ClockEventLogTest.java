@@ -0,0 +1,182 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.entity.ClockEventEntry;
+import com.it342.timesheets.entity.EmployeeClockSnapshot;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.ClockEventEntryRepository;
+import com.it342.timesheets.repository.EmployeeClockSnapshotRepository;
+import com.it342.timesheets.repository.EmployeeRepository;
+import com.it342.timesheets.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClockEventLogTest {
+
+    private static final Integer EMPLOYER = 1;
+    private static final Integer EMPLOYEE = 7;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private long nextEventId = 1;
+
+    @Test
+    void foldsShiftsAndLeavesTheLastClockInOpen() {
+        ClockEventLog.Fold fold = new ClockEventLog.Fold();
+        fold.add(clockIn(10, MONDAY.plusHours(8)));
+        fold.add(clockOut(10, MONDAY.plusHours(16).plusSeconds(59)));
+        fold.add(clockIn(11, MONDAY.plusHours(32)));
+
+        assertEquals(3, fold.eventCount);
+        assertEquals(3, fold.lastEventId);
+        assertEquals(1, fold.shiftCount);
+        assertEquals(8 * 3600, fold.workedSeconds);
+        assertEquals(11, fold.openRecordId);
+        assertEquals(MONDAY.plusHours(32), fold.openSince);
+    }
+
+    @Test
+    void foldingInTwoStepsThroughASnapshotMatchesOneStep() {
+        List<ClockEventEntry> events = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            events.add(clockIn(100 + day, MONDAY.plusDays(day).plusHours(9)));
+            events.add(clockOut(100 + day, MONDAY.plusDays(day).plusHours(17).plusMinutes(day)));
+        }
+        events.add(clockIn(200, MONDAY.plusDays(10).plusHours(9)));
+
+        ClockEventLog.Fold whole = new ClockEventLog.Fold();
+        events.forEach(whole::add);
+
+        for (int split = 0; split <= events.size(); split++) {
+            ClockEventLog.Fold first = new ClockEventLog.Fold();
+            events.subList(0, split).forEach(first::add);
+            EmployeeClockSnapshot snapshot = new EmployeeClockSnapshot();
+            first.copyTo(snapshot);
+
+            ClockEventLog.Fold resumed = ClockEventLog.Fold.from(snapshot, EMPLOYER);
+            events.subList(split, events.size()).forEach(resumed::add);
+
+            assertEquals(whole.lastEventId, resumed.lastEventId);
+            assertEquals(whole.eventCount, resumed.eventCount);
+            assertEquals(whole.shiftCount, resumed.shiftCount);
+            assertEquals(whole.workedSeconds, resumed.workedSeconds);
+            assertEquals(whole.openRecordId, resumed.openRecordId);
+            assertEquals(whole.openSince, resumed.openSince);
+        }
+    }
+
+    @Test
+    void clockOutAfterTheSnapshotClosesTheSnapshotsOpenShift() {
+        EmployeeClockSnapshot snapshot = new EmployeeClockSnapshot();
+        snapshot.setLastEventId(40L);
+        snapshot.setEventCount(40L);
+        snapshot.setOpenRecordId(20);
+        snapshot.setOpenSince(MONDAY.plusHours(22));
+        nextEventId = 41;
+
+        ClockEventLog.Fold fold = ClockEventLog.Fold.from(snapshot, EMPLOYER);
+        fold.add(clockOut(20, MONDAY.plusHours(30)));
+        fold.add(clockIn(21, MONDAY.plusHours(40)));
+
+        List<Map.Entry<Integer, ClockEventLog.Shift>> rows = fold.rows();
+        assertEquals(List.of(20, 21), rows.stream().map(Map.Entry::getKey).toList());
+        ClockEventLog.Shift closed = rows.get(0).getValue();
+        assertEquals(MONDAY.plusHours(22), closed.clockInAt);
+        assertEquals(MONDAY.plusHours(30), closed.clockOutAt);
+        assertEquals(EMPLOYER, closed.employerId);
+        assertNull(rows.get(1).getValue().clockOutAt);
+        assertEquals(1, fold.shiftCount);
+        assertEquals(42, fold.eventCount);
+    }
+
+    @Test
+    void rowsCloseRecordsBeforeOpeningOne() {
+        ClockEventLog.Fold fold = new ClockEventLog.Fold();
+        fold.add(clockIn(30, MONDAY.plusHours(8)));
+        fold.add(clockOut(30, MONDAY.plusHours(12)));
+        fold.add(clockIn(31, MONDAY.plusHours(13)));
+        fold.add(clockOut(31, MONDAY.plusHours(17)));
+        fold.add(clockIn(32, MONDAY.plusHours(20)));
+        // A clock-out with no clock-in in the log is not projected.
+        fold.add(clockOut(29, MONDAY.plusHours(21)));
+
+        assertEquals(List.of(30, 31, 32), fold.rows().stream().map(Map.Entry::getKey).toList());
+    }
+
+    @Test
+    void replayStartsFromTheSnapshotAndRejectsAnOpenRecordOutsideIt() {
+        ClockEventEntryRepository eventRepository = mock(ClockEventEntryRepository.class);
+        EmployeeClockSnapshotRepository snapshotRepository = mock(EmployeeClockSnapshotRepository.class);
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        User employer = new User();
+        employer.setRole(UserRole.EMPLOYER);
+        when(userRepository.findById(EMPLOYER)).thenReturn(Optional.of(employer));
+        when(employeeRepository.existsByEmployeeIdAndCreatedByUser_UserId(EMPLOYEE, EMPLOYER)).thenReturn(true);
+        EmployeeClockSnapshot snapshot = new EmployeeClockSnapshot();
+        snapshot.setEmployeeId(EMPLOYEE);
+        snapshot.setLastEventId(40L);
+        when(snapshotRepository.findById(EMPLOYEE)).thenReturn(Optional.of(snapshot));
+        nextEventId = 41;
+        List<ClockEventEntry> later = List.of(clockIn(50, MONDAY.plusHours(8)));
+        when(eventRepository.findByEmployeeIdAndEventIdGreaterThanOrderByEventIdAsc(eq(EMPLOYEE), anyLong(), any(Limit.class)))
+                .thenReturn(later);
+        // The projection still has record 12 open, which the log closed before the snapshot.
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(EMPLOYEE))).thenReturn(List.of(12));
+
+        ClockEventLog eventLog = new ClockEventLog(eventRepository, snapshotRepository, employeeRepository,
+                userRepository, jdbcTemplate, transactionTemplate, 50);
+        RuntimeException conflict = assertThrows(RuntimeException.class, () -> eventLog.replay(EMPLOYER, EMPLOYEE, false));
+
+        assertEquals("Open record conflicts with the clock event log", conflict.getMessage());
+        verify(eventRepository).findByEmployeeIdAndEventIdGreaterThanOrderByEventIdAsc(eq(EMPLOYEE), eq(40L), any(Limit.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    private ClockEventEntry clockIn(int recordId, LocalDateTime at) {
+        return entry(ClockEventEntry.CLOCK_IN, recordId, at);
+    }
+
+    private ClockEventEntry clockOut(int recordId, LocalDateTime at) {
+        return entry(ClockEventEntry.CLOCK_OUT, recordId, at);
+    }
+
+    private ClockEventEntry entry(String type, int recordId, LocalDateTime at) {
+        ClockEventEntry entry = new ClockEventEntry();
+        entry.setEventId(nextEventId++);
+        entry.setEmployeeId(EMPLOYEE);
+        entry.setEmployerId(EMPLOYER);
+        entry.setRecordId(recordId);
+        entry.setEventType(type);
+        entry.setOccurredAt(at);
+        return entry;
+    }
+}
@@ -0,0 +1,120 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.ClockEventRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClockEventPlannerTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 1, 29, 0, 0);
+
+    private final List<ClockEventRequest> events = new ArrayList<>();
+    private final Map<Integer, List<Integer>> byEmployee = new LinkedHashMap<>();
+    private final Map<Integer, ClockEventPlanner.EmployeeState> states = new LinkedHashMap<>();
+
+    @Test
+    void assignsTheKthEventOfEachEmployeeToPhaseK() {
+        add(1, "clock_in", 8);
+        add(2, "clock_in", 9);
+        add(1, "clock_out", 12);
+        add(1, "clock_in", 13);
+        add(2, "clock_out", 17);
+
+        ClockEventPlanner.Plan plan = plan();
+
+        assertTrue(plan.rejected().isEmpty());
+        assertEquals(3, plan.phases().size());
+        assertEquals(List.of(0, 1), indexes(plan.phases().get(0)));
+        assertEquals(List.of(2, 4), indexes(plan.phases().get(1)));
+        assertEquals(List.of(3), indexes(plan.phases().get(2)));
+        // The clock-out closes the shift its clock-in opened.
+        assertSame(plan.phases().get(0).get(0).shift(), plan.phases().get(1).get(0).shift());
+    }
+
+    @Test
+    void clockOutClosesTheOpenShiftFromTheDatabase() {
+        states.put(1, new ClockEventPlanner.EmployeeState(42, at(7), at(6).minusDays(1)));
+        add(1, "clock_out", 15);
+
+        ClockEventPlanner.Plan plan = plan();
+
+        ClockEventPlanner.Step step = plan.phases().get(0).get(0);
+        assertEquals(42, step.shift().recordId);
+        assertEquals(at(7), step.shift().clockInAt);
+        assertEquals(at(15), step.clockOutAt());
+    }
+
+    @Test
+    void rejectsEventsThatDoNotAlternate() {
+        states.put(1, new ClockEventPlanner.EmployeeState(42, at(7), null));
+        add(1, "clock_in", 8);
+        add(2, "clock_out", 9);
+        add(1, "clock_out", 10);
+        add(1, "clock_out", 11);
+
+        ClockEventPlanner.Plan plan = plan();
+
+        assertEquals(Map.of(0, "Already clocked in", 1, "No active clock-in record found",
+                3, "No active clock-in record found"), plan.rejected());
+        assertEquals(List.of(2), indexes(plan.phases().get(0)));
+    }
+
+    @Test
+    void rejectsEventsEarlierThanThePreviousOne() {
+        add(1, "clock_in", 9);
+        add(1, "clock_out", 8);
+        add(1, "clock_out", 17);
+
+        ClockEventPlanner.Plan plan = plan();
+
+        assertEquals(Map.of(1, "Event is earlier than the employee's previous event"), plan.rejected());
+        assertEquals(at(17), plan.phases().get(1).get(0).clockOutAt());
+    }
+
+    @Test
+    void rejectsShiftsBeforeOrInsideTheLastClosedShift() {
+        // Last closed shift ended at 17:00; an offline device replays an older 10:00-12:00 pair.
+        states.put(1, new ClockEventPlanner.EmployeeState(null, null, at(17)));
+        add(1, "clock_in", 10);
+        add(1, "clock_out", 12);
+        add(1, "clock_in", 17);
+
+        ClockEventPlanner.Plan plan = plan();
+
+        assertEquals("Event is earlier than the employee's last clock-out", plan.rejected().get(0));
+        assertEquals("Event is earlier than the employee's last clock-out", plan.rejected().get(1));
+        assertEquals(List.of(2), indexes(plan.phases().get(0)));
+        assertNull(plan.phases().get(0).get(0).shift().recordId);
+    }
+
+    private void add(int employeeId, String type, int hour) {
+        ClockEventRequest event = new ClockEventRequest();
+        event.setEmployeeId(employeeId);
+        event.setType(type);
+        event.setOccurredAt(at(hour));
+        byEmployee.computeIfAbsent(employeeId, id -> new ArrayList<>()).add(events.size());
+        events.add(event);
+    }
+
+    private ClockEventPlanner.Plan plan() {
+        return ClockEventPlanner.plan(new ArrayList<>(byEmployee.keySet()), byEmployee, events, states);
+    }
+
+    private static List<Integer> indexes(List<ClockEventPlanner.Step> phase) {
+        return phase.stream().map(ClockEventPlanner.Step::index).toList();
+    }
+
+    private static LocalDateTime at(int hour) {
+        return MONDAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,117 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.entity.Employee;
+import com.it342.timesheets.entity.TimesheetRecord;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.EmployeeRepository;
+import com.it342.timesheets.repository.TimesheetRecordRepository;
+import com.it342.timesheets.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ClockTransitionStressTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TimesheetService timesheetService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TimesheetRecordRepository timesheetRecordRepository;
+
+    @Test
+    void concurrentTapsNeverOpenOrCloseAShiftTwice() throws Exception {
+        User employer = saveUser(UserRole.EMPLOYER, null);
+        User employeeUser = saveUser(UserRole.EMPLOYEE, employer);
+        Employee employee = new Employee();
+        employee.setEmployeeName(employeeUser.getUsername());
+        employee.setCreatedByUser(employer);
+        employee.setUser(employeeUser);
+        employeeRepository.save(employee);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                assertEquals(1, hammer(pool, () -> timesheetService.clockIn(employeeUser.getUserId())));
+                assertEquals(1, hammer(pool, () -> timesheetService.clockOut(employeeUser.getUserId())));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<TimesheetRecord> records = timesheetRecordRepository.findAll().stream()
+                .filter(record -> record.getEmployee().getEmployeeId().equals(employee.getEmployeeId()))
+                .toList();
+        assertEquals(ROUNDS, records.size());
+        for (TimesheetRecord record : records) {
+            assertEquals("clocked_out", record.getStatus());
+            assertNotNull(record.getHoursWorked());
+        }
+    }
+
+    // Fires the action from every thread at once and returns how many succeeded.
+    private int hammer(ExecutorService pool, Runnable action) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Callable<Boolean> attempt = () -> {
+                start.await();
+                try {
+                    action.run();
+                    return true;
+                } catch (RuntimeException e) {
+                    assertTrue(e.getMessage().equals("Already clocked in")
+                            || e.getMessage().equals("No active clock-in record found"), e.getMessage());
+                    return false;
+                }
+            };
+            results.add(pool.submit(attempt));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    private User saveUser(UserRole role, User employer) {
+        String name = "st" + UUID.randomUUID().toString().substring(0, 12);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(role);
+        user.setEmployer(employer);
+        return userRepository.save(user);
+    }
+}
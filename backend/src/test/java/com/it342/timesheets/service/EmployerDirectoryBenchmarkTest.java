@@ -0,0 +1,40 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.UserResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Index against full scan at 100,000 employers. Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+class EmployerDirectoryBenchmarkTest {
+
+    private static final int EMPLOYERS = 100_000;
+    private static final int ROUNDS = 10;
+
+    @Test
+    void indexAgainstFullScan() {
+        List<UserResponse> employers = EmployerDirectoryTest.generate(EMPLOYERS);
+        EmployerDirectory directory = EmployerDirectoryTest.index(employers);
+
+        long scanNanos = time(query -> EmployerDirectoryTest.scan(employers, query));
+        long indexNanos = time(directory::search);
+        int queries = ROUNDS * EmployerDirectoryTest.QUERIES.length;
+        System.out.printf("employer search over %d employers (%s): full scan %.3f ms/query, index %.3f ms/query%n",
+                EMPLOYERS, Benchmarks.environment(), scanNanos / 1e6 / queries, indexNanos / 1e6 / queries);
+    }
+
+    private static long time(Function<String, List<UserResponse>> search) {
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String query : EmployerDirectoryTest.QUERIES) {
+                search.apply(query);
+            }
+        }
+        return System.nanoTime() - started;
+    }
+}
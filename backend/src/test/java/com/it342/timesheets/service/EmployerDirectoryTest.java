@@ -0,0 +1,70 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.UserResponse;
+import com.it342.timesheets.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmployerDirectoryTest {
+
+    private static final int EMPLOYERS = 5_000;
+    static final String[] QUERIES = {"", "a", "zq", "acm", "corp", "store", "xyzzy", "Bakery", "co-op", "nonexistent"};
+
+    private static EmployerDirectory directory;
+    private static List<UserResponse> employers;
+
+    @BeforeAll
+    static void buildDirectory() {
+        employers = generate(EMPLOYERS);
+        directory = index(employers);
+    }
+
+    @Test
+    void searchMatchesContainingIgnoreCaseOrderedByUsername() {
+        for (String query : QUERIES) {
+            assertEquals(usernames(scan(employers, query)), usernames(directory.search(query)), "query: " + query);
+        }
+    }
+
+    static List<UserResponse> generate(int count) {
+        List<UserResponse> generated = new ArrayList<>(count);
+        String[] words = {"acme", "corp", "store", "bakery", "co-op", "farm", "market", "Depot", "Foods", "labs"};
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            String name = words[random.nextInt(words.length)] + "_" + Integer.toString(random.nextInt(1 << 30), 36)
+                    + (random.nextBoolean() ? words[random.nextInt(words.length)] : "");
+            generated.add(new UserResponse(i, name, name + "@example.com", "EMPLOYER", null));
+        }
+        return generated;
+    }
+
+    static EmployerDirectory index(List<UserResponse> employers) {
+        EmployerDirectory directory = new EmployerDirectory(Mockito.mock(UserRepository.class));
+        employers.forEach(directory::add);
+        return directory;
+    }
+
+    // The in-memory equivalent of "lower(username) like %q% order by username limit 10".
+    static List<UserResponse> scan(List<UserResponse> employers, String query) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        return employers.stream()
+                .filter(e -> e.getUsername().toLowerCase(Locale.ROOT).contains(needle))
+                .sorted(Comparator.comparing((UserResponse e) -> e.getUsername().toLowerCase(Locale.ROOT))
+                        .thenComparing(UserResponse::getUsername))
+                .limit(EmployerDirectory.LIMIT)
+                .toList();
+    }
+
+    private static List<String> usernames(List<UserResponse> results) {
+        return results.stream().map(UserResponse::getUsername).toList();
+    }
+}
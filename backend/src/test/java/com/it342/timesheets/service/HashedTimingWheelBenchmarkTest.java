@@ -0,0 +1,39 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hundreds of thousands of open shifts over two days of one-minute ticks.
+ * Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+class HashedTimingWheelBenchmarkTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+    private static final int SHIFTS = 300_000;
+
+    @Test
+    void scheduleCancelAndAdvanceAtThreeHundredThousandShifts() {
+        HashedTimingWheel<Integer, Integer> wheel = new HashedTimingWheel<>(MINUTE, 1024, 0);
+        long started = System.nanoTime();
+        for (int i = 0; i < SHIFTS; i++) {
+            wheel.schedule(i, i, 16 * HOUR + (i % 1440) * MINUTE);
+        }
+        for (int i = 0; i < SHIFTS; i += 2) {
+            wheel.cancel(i);
+        }
+        int fired = 0;
+        for (long now = 0; now <= 48 * HOUR; now += MINUTE) {
+            fired += wheel.advance(now).size();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(SHIFTS / 2, fired);
+        System.out.printf("timing wheel, %d shifts (%s): schedule, cancel half and 48h of ticks in %d ms%n",
+                SHIFTS, Benchmarks.environment(), elapsedMillis);
+    }
+}
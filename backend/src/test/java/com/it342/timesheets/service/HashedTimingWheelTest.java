@@ -0,0 +1,62 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int SHIFTS = 10_000;
+
+    @Test
+    void firesOnlyDueTimersIncludingOnesBeyondOneTurn() {
+        HashedTimingWheel<Integer, String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule(1, "soon", 3 * TICK);
+        wheel.schedule(2, "next turn", 11 * TICK);
+        wheel.schedule(3, "overdue", -5 * TICK);
+        wheel.schedule(4, "cancelled", 3 * TICK);
+        wheel.cancel(4);
+
+        assertEquals(List.of("overdue"), wheel.advance(TICK));
+        assertEquals(List.of("soon"), wheel.advance(10 * TICK));
+        assertEquals(List.of("next turn"), wheel.advance(11 * TICK + 1));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulingMovesTheTimer() {
+        HashedTimingWheel<Integer, String> wheel = new HashedTimingWheel<>(TICK, 16, 0);
+        wheel.schedule(1, "first", 2 * TICK);
+        wheel.schedule(1, "moved", 40 * TICK);
+
+        assertTrue(wheel.advance(39 * TICK).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(40 * TICK));
+    }
+
+    @Test
+    void firesEveryUncancelledTimerExactlyOnceOverSeveralTurns() {
+        long minute = 60 * TICK;
+        HashedTimingWheel<Integer, Integer> wheel = new HashedTimingWheel<>(minute, 64, 0);
+        for (int i = 0; i < SHIFTS; i++) {
+            wheel.schedule(i, i, (300 + i % 500) * minute);
+        }
+        for (int i = 0; i < SHIFTS; i += 2) {
+            wheel.cancel(i);
+        }
+        Set<Integer> fired = new HashSet<>();
+        for (long now = 0; now <= 900 * minute; now += 7 * minute) {
+            for (Integer shift : wheel.advance(now)) {
+                assertTrue(shift % 2 == 1);
+                assertTrue(fired.add(shift));
+            }
+        }
+        assertEquals(SHIFTS / 2, fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
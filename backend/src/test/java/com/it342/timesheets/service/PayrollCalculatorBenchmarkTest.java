@@ -0,0 +1,47 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * One month for 50,000 employees (about 1.1M shifts), calculation only; see
+ * {@link PayrollServiceBenchmarkTest} for the whole run against the database.
+ * Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+class PayrollCalculatorBenchmarkTest {
+
+    private static final long HOUR = 3600;
+    private static final int EMPLOYEES = 50_000;
+    private static final int ROUNDS = 5;
+
+    private final PayrollCalculator calculator = new PayrollCalculator(8 * HOUR, 40 * HOUR);
+
+    @Test
+    void oneMonthForFiftyThousandEmployees() {
+        PayrollCalculator.Shifts shifts = PayrollCalculatorTest.generateMonth(EMPLOYEES, new Random(42));
+
+        PayrollCalculator.Result result = null;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            result = calculator.calculate(shifts, ForkJoinPool.commonPool());
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        for (int employee = 0; employee < EMPLOYEES; employee += 97) {
+            long[] expected = PayrollCalculatorTest.referenceMinutes(shifts, employee);
+            assertArrayEquals(expected, new long[]{
+                    result.regular()[employee], result.dailyOvertime()[employee], result.weeklyOvertime()[employee]});
+        }
+
+        System.out.printf("payroll, %d employees, %d shifts (%s, pool parallelism %d): best of %d rounds %.1f ms%n",
+                EMPLOYEES, shifts.clockIn().length, Benchmarks.environment(),
+                ForkJoinPool.commonPool().getParallelism(), ROUNDS, best / 1e6);
+    }
+}
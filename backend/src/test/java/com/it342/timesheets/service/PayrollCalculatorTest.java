@@ -0,0 +1,219 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PayrollCalculatorTest {
+
+    private static final long HOUR = 3600;
+    private static final int EMPLOYEES = 500;
+
+    private final PayrollCalculator calculator = new PayrollCalculator(8 * HOUR, 40 * HOUR);
+
+    @Test
+    void splitsDailyAndWeeklyOvertimeAcrossMidnightAndWeeks() {
+        // 2024-01-01 is a Monday.
+        long[][] shifts = {
+                shift(1, 8, 10 * HOUR),       // Mon: 8 regular + 2 daily
+                shift(2, 22, 8 * HOUR),       // Tue 22:00 to Wed 06:00: 2 + 6, no overtime
+                shift(3, 8, 8 * HOUR),        // Wed: 6 + 8 = 14 hours, 6 daily
+                shift(4, 8, 9 * HOUR),        // Thu: 8 regular + 1 daily
+                shift(5, 8, 9 * HOUR),        // Fri: 8 regular + 1 daily; week regular is now 34
+                shift(6, 8, 7 * HOUR),        // Sat: 6 regular, then 1 weekly past 40
+                shift(8, 8, 5 * HOUR),        // next Mon: new week, regular
+        };
+        PayrollCalculator.Result result = calculate(shifts);
+
+        assertEquals((8 + 2 + 8 + 8 + 8 + 6 + 5) * HOUR, result.regular()[0]);
+        assertEquals((2 + 6 + 1 + 1) * HOUR, result.dailyOvertime()[0]);
+        assertEquals(HOUR, result.weeklyOvertime()[0]);
+        assertEquals(7, result.shiftCount()[0]);
+    }
+
+    @Test
+    void truncatesShiftsToWholeMinutes() {
+        PayrollCalculator.Result result = calculate(new long[][]{{epoch(1, 9), epoch(1, 9) + 59 * 60 + 59}});
+        assertEquals(59 * 60, result.regular()[0]);
+    }
+
+    @Test
+    void matchesMinuteByMinuteReferenceOverOneMonth() {
+        PayrollCalculator.Shifts shifts = generateMonth(EMPLOYEES, new Random(42));
+        PayrollCalculator.Result result = calculator.calculate(shifts, ForkJoinPool.commonPool());
+
+        for (int employee = 0; employee < EMPLOYEES; employee++) {
+            long[] expected = referenceMinutes(shifts, employee);
+            assertArrayEquals(expected, new long[]{
+                    result.regular()[employee], result.dailyOvertime()[employee], result.weeklyOvertime()[employee]});
+        }
+    }
+
+    @Test
+    void earlierShiftsInTheWeekFillTheWeeklyLimitWithoutBeingPaid() {
+        // Period starts Wednesday 2024-01-03; Monday and Tuesday belong to the previous run.
+        long[][] shifts = {
+                shift(1, 8, 12 * HOUR),       // Mon: 8 regular + 4 daily, not counted
+                shift(2, 6, 16 * HOUR),       // Tue: 8 regular + 8 daily, not counted
+                shift(3, 8, 8 * HOUR),        // Wed: week regular 24
+                shift(4, 8, 8 * HOUR),        // Thu: 32
+                shift(5, 8, 10 * HOUR),       // Fri: 8 regular, 2 daily; week regular reaches 40
+                shift(6, 8, 4 * HOUR),        // Sat: all weekly
+        };
+        PayrollCalculator.Result result = calculate(shifts, epoch(3, 0));
+
+        assertEquals(24 * HOUR, result.regular()[0]);
+        assertEquals(2 * HOUR, result.dailyOvertime()[0]);
+        assertEquals(4 * HOUR, result.weeklyOvertime()[0]);
+        assertEquals(4, result.shiftCount()[0]);
+    }
+
+    @Test
+    void shiftSpillingIntoThePeriodTakesTheFirstShareOfThatDay() {
+        // Tue 20:00 to Wed 04:00 belongs to the earlier period; Wed then has 4 regular hours left.
+        long[][] shifts = {
+                shift(2, 20, 8 * HOUR),
+                shift(3, 9, 6 * HOUR),
+        };
+        PayrollCalculator.Result result = calculate(shifts, epoch(3, 0));
+
+        assertEquals(4 * HOUR, result.regular()[0]);
+        assertEquals(2 * HOUR, result.dailyOvertime()[0]);
+        assertEquals(1, result.shiftCount()[0]);
+    }
+
+    @Test
+    void seededPeriodIsTheWholeMonthMinusTheEarlierShifts() {
+        PayrollCalculator.Shifts month = generateMonth(EMPLOYEES, new Random(7));
+        // Wednesday 2024-01-17.
+        long countFrom = epoch(17, 0);
+        PayrollCalculator.Shifts seeded = new PayrollCalculator.Shifts(month.employeeCount(), month.offsets(),
+                month.clockIn(), month.clockOut(), countFrom);
+        PayrollCalculator.Result whole = calculator.calculate(month, ForkJoinPool.commonPool());
+        PayrollCalculator.Result period = calculator.calculate(seeded, ForkJoinPool.commonPool());
+        PayrollCalculator.Result earlier = calculator.calculate(before(month, countFrom), ForkJoinPool.commonPool());
+
+        for (int employee = 0; employee < EMPLOYEES; employee++) {
+            assertArrayEquals(new long[]{
+                    whole.regular()[employee] - earlier.regular()[employee],
+                    whole.dailyOvertime()[employee] - earlier.dailyOvertime()[employee],
+                    whole.weeklyOvertime()[employee] - earlier.weeklyOvertime()[employee],
+                    whole.shiftCount()[employee] - earlier.shiftCount()[employee]
+            }, new long[]{
+                    period.regular()[employee], period.dailyOvertime()[employee],
+                    period.weeklyOvertime()[employee], period.shiftCount()[employee]});
+        }
+    }
+
+    // The shifts clocked in before the cut-off, as a run of the earlier period would see them.
+    private static PayrollCalculator.Shifts before(PayrollCalculator.Shifts shifts, long cutoff) {
+        int employees = shifts.employeeCount();
+        int[] offsets = new int[employees + 1];
+        long[] clockIn = new long[shifts.clockIn().length];
+        long[] clockOut = new long[shifts.clockOut().length];
+        int n = 0;
+        for (int employee = 0; employee < employees; employee++) {
+            offsets[employee] = n;
+            for (int i = shifts.offsets()[employee]; i < shifts.offsets()[employee + 1]; i++) {
+                if (shifts.clockIn()[i] < cutoff) {
+                    clockIn[n] = shifts.clockIn()[i];
+                    clockOut[n] = shifts.clockOut()[i];
+                    n++;
+                }
+            }
+        }
+        offsets[employees] = n;
+        return new PayrollCalculator.Shifts(employees, offsets, clockIn, clockOut, Long.MIN_VALUE);
+    }
+
+    private PayrollCalculator.Result calculate(long[][] shifts) {
+        return calculate(shifts, Long.MIN_VALUE);
+    }
+
+    private PayrollCalculator.Result calculate(long[][] shifts, long countFrom) {
+        long[] clockIn = new long[shifts.length];
+        long[] clockOut = new long[shifts.length];
+        for (int i = 0; i < shifts.length; i++) {
+            clockIn[i] = shifts[i][0];
+            clockOut[i] = shifts[i][1];
+        }
+        return calculator.calculate(
+                new PayrollCalculator.Shifts(1, new int[]{0, shifts.length}, clockIn, clockOut, countFrom),
+                ForkJoinPool.commonPool());
+    }
+
+    // January 2024, one shift of 4 to 11 hours on most days, some overnight. Shifts start
+    // on whole minutes so the minute-by-minute reference splits midnight exactly.
+    static PayrollCalculator.Shifts generateMonth(int employees, Random random) {
+        int capacity = employees * 31;
+        int[] offsets = new int[employees + 1];
+        long[] clockIn = new long[capacity];
+        long[] clockOut = new long[capacity];
+        int n = 0;
+        for (int employee = 0; employee < employees; employee++) {
+            offsets[employee] = n;
+            for (int day = 1; day <= 31; day++) {
+                if (random.nextInt(10) < 3) {
+                    continue;
+                }
+                long start = epoch(day, 6 + random.nextInt(15)) + random.nextInt(60) * 60;
+                clockIn[n] = start;
+                clockOut[n] = start + 4 * HOUR + random.nextInt(7 * 3600);
+                n++;
+            }
+        }
+        offsets[employees] = n;
+        return new PayrollCalculator.Shifts(employees, offsets,
+                Arrays.copyOf(clockIn, n), Arrays.copyOf(clockOut, n), Long.MIN_VALUE);
+    }
+
+    // Minute-by-minute model of the same rules: {regular, daily overtime, weekly overtime} in seconds.
+    static long[] referenceMinutes(PayrollCalculator.Shifts shifts, int employee) {
+        TreeMap<Long, Long> minutesByDay = new TreeMap<>();
+        for (int i = shifts.offsets()[employee]; i < shifts.offsets()[employee + 1]; i++) {
+            long start = shifts.clockIn()[i];
+            long minutes = (shifts.clockOut()[i] - start) / 60;
+            for (long m = 0; m < minutes; m++) {
+                minutesByDay.merge(Math.floorDiv(start + m * 60, 86_400), 1L, Long::sum);
+            }
+        }
+        long regular = 0;
+        long daily = 0;
+        long weekly = 0;
+        long week = Long.MIN_VALUE;
+        long weekRegular = 0;
+        for (var entry : minutesByDay.entrySet()) {
+            long dayWeek = Math.floorDiv(entry.getKey() + 3, 7);
+            if (dayWeek != week) {
+                week = dayWeek;
+                weekRegular = 0;
+            }
+            long worked = entry.getValue();
+            long over = Math.max(0, worked - 480);
+            long dayRegular = worked - over;
+            long overWeek = Math.max(0, Math.min(dayRegular, weekRegular + dayRegular - 2400));
+            daily += over;
+            weekly += overWeek;
+            regular += dayRegular - overWeek;
+            weekRegular += dayRegular - overWeek;
+        }
+        return new long[]{regular * 60, daily * 60, weekly * 60};
+    }
+
+    private static long[] shift(int day, int hour, long seconds) {
+        long start = epoch(day, hour);
+        return new long[]{start, start + seconds};
+    }
+
+    private static long epoch(int day, int hour) {
+        return LocalDateTime.of(2024, 1, day, hour, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,137 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.PayrollRunResponse;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import com.it342.timesheets.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link PayrollService#run} end to end for one month of 50,000 employees
+ * (about 1.1M shifts): streaming the shifts, calculating and storing the
+ * summaries. Needs the test database; run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class PayrollServiceBenchmarkTest {
+
+    private static final int EMPLOYEES = 50_000;
+    private static final int ROUNDS = 3;
+    private static final int BATCH = 10_000;
+
+    private static final String INSERT_EMPLOYEE_SQL =
+            "INSERT INTO employees (employee_name, created_by_user_id, created_at, is_active) VALUES (?, ?, ?, true)";
+
+    private static final String INSERT_RECORD_SQL = """
+            INSERT INTO timesheet_records (employee_id, created_by_user_id, clock_in_time, clock_out_time,
+                                           hours_worked, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 'clocked_out', ?, ?)""";
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer employerId;
+
+    @Test
+    void oneMonthForFiftyThousandEmployees() {
+        PayrollCalculator.Shifts shifts = PayrollCalculatorTest.generateMonth(EMPLOYEES, new Random(42));
+        employerId = createEmployer();
+        seed(employerId, shifts);
+
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        PayrollRunResponse response = null;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            response = payrollService.run(employerId, from, to);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        assertEquals(EMPLOYEES, response.getEmployeeCount());
+        assertEquals(shifts.clockIn().length, response.getShiftCount());
+        System.out.printf("payroll run, %d employees, %d shifts (%s): best of %d rounds %.1f ms%n",
+                EMPLOYEES, shifts.clockIn().length, Benchmarks.environment(), ROUNDS, best / 1e6);
+    }
+
+    @AfterEach
+    void removeSeededData() {
+        if (employerId == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM payroll_period_summaries WHERE employer_id = ?", employerId);
+        jdbcTemplate.update("DELETE FROM timesheet_records WHERE created_by_user_id = ?", employerId);
+        jdbcTemplate.update("DELETE FROM employees WHERE created_by_user_id = ?", employerId);
+        userRepository.deleteById(employerId);
+    }
+
+    private Integer createEmployer() {
+        String name = "pb" + UUID.randomUUID().toString().substring(0, 12);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(UserRole.EMPLOYER);
+        return userRepository.save(user).getUserId();
+    }
+
+    private void seed(Integer employerId, PayrollCalculator.Shifts shifts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> indexes = new ArrayList<>(EMPLOYEES);
+        for (int e = 0; e < EMPLOYEES; e++) {
+            indexes.add(e);
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_SQL, indexes, BATCH, (ps, e) -> {
+            ps.setString(1, "Payroll benchmark " + e);
+            ps.setInt(2, employerId);
+            ps.setTimestamp(3, now);
+        });
+        List<Integer> employeeIds = jdbcTemplate.queryForList(
+                "SELECT employee_id FROM employees WHERE created_by_user_id = ? ORDER BY employee_id",
+                Integer.class, employerId);
+
+        List<int[]> rows = new ArrayList<>(shifts.clockIn().length);
+        for (int e = 0; e < EMPLOYEES; e++) {
+            for (int i = shifts.offsets()[e]; i < shifts.offsets()[e + 1]; i++) {
+                rows.add(new int[]{e, i});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_RECORD_SQL, rows, BATCH, (ps, row) -> {
+            long in = shifts.clockIn()[row[1]];
+            long out = shifts.clockOut()[row[1]];
+            ps.setInt(1, employeeIds.get(row[0]));
+            ps.setInt(2, employerId);
+            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.ofEpochSecond(in, 0, ZoneOffset.UTC)));
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.ofEpochSecond(out, 0, ZoneOffset.UTC)));
+            ps.setBigDecimal(5, BigDecimal.valueOf((out - in) / 60).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP));
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+}
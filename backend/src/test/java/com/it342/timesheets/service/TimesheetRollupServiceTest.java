@@ -0,0 +1,93 @@
+package com.it342.timesheets.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimesheetRollupServiceTest {
+
+    private static final long HOUR = 3_600;
+    private static final long DAY = 86_400;
+
+    @Test
+    void splitCutsAtEveryBucketBoundary() {
+        List<long[]> segments = new ArrayList<>();
+        long start = at(1, 9, 15);
+        TimesheetRollupService.split(start, at(1, 12, 45), HOUR, (bucket, seconds) -> segments.add(new long[]{bucket, seconds}));
+
+        assertEquals(4, segments.size());
+        assertSegment(segments.get(0), at(1, 9, 0), 45 * 60);
+        assertSegment(segments.get(1), at(1, 10, 0), HOUR);
+        assertSegment(segments.get(2), at(1, 11, 0), HOUR);
+        assertSegment(segments.get(3), at(1, 12, 0), 45 * 60);
+    }
+
+    @Test
+    void shiftAcrossMidnightIsSplitBetweenDaysAndHours() {
+        TimesheetRollupService.Tally tally = new TimesheetRollupService.Tally(Long.MIN_VALUE, Long.MAX_VALUE);
+        tally.add(1, 7, time(1, 22, 0), time(2, 6, 30));
+
+        assertEquals(Map.of(at(1, 0, 0), 2 * HOUR, at(2, 0, 0), 6 * HOUR + 30 * 60), seconds(tally.employerDays));
+        assertEquals(6 * HOUR + 30 * 60,
+                tally.employeeDays.get(new TimesheetRollupService.EmployeeBucket(7, 1, at(2, 0, 0)))[0]);
+        Map<Long, Long> hours = seconds(tally.employerHours);
+        assertEquals(9, hours.size());
+        assertEquals(HOUR, hours.get(at(1, 22, 0)));
+        assertEquals(HOUR, hours.get(at(2, 0, 0)));
+        assertEquals(30 * 60, hours.get(at(2, 6, 0)));
+        // The shift overlaps both days, so each counts it once.
+        tally.employerDays.values().forEach(totals -> assertEquals(1, totals[1]));
+    }
+
+    @Test
+    void truncatesToWholeMinutesAndCountsOverlappingShifts() {
+        TimesheetRollupService.Tally tally = new TimesheetRollupService.Tally(Long.MIN_VALUE, Long.MAX_VALUE);
+        tally.add(1, 7, time(1, 9, 0), time(1, 9, 0).plusMinutes(59).plusSeconds(59));
+        tally.add(1, 8, time(1, 9, 30), time(1, 10, 0));
+
+        long[] nine = tally.employerHours.get(new TimesheetRollupService.EmployerBucket(1, at(1, 9, 0)));
+        assertEquals(59 * 60 + 30 * 60, nine[0]);
+        assertEquals(2, nine[1]);
+    }
+
+    @Test
+    void rebuildWindowClipsShiftsAtBothEnds() {
+        // rebuild(day 2, day 2) tallies over [day 2 00:00, day 3 00:00).
+        TimesheetRollupService.Tally tally = new TimesheetRollupService.Tally(at(2, 0, 0), at(3, 0, 0));
+        tally.add(1, 7, time(1, 20, 0), time(2, 4, 0));
+        tally.add(1, 8, time(2, 21, 0), time(3, 5, 0));
+        tally.add(1, 9, time(3, 8, 0), time(3, 16, 0));
+
+        assertEquals(Map.of(at(2, 0, 0), 7 * HOUR), seconds(tally.employerDays));
+        assertEquals(2, tally.employerDays.get(new TimesheetRollupService.EmployerBucket(1, at(2, 0, 0)))[1]);
+        Map<Long, Long> hours = seconds(tally.employerHours);
+        assertEquals(7, hours.size());
+        hours.keySet().forEach(bucket -> assertEquals(at(2, 0, 0), Math.floorDiv(bucket, DAY) * DAY));
+    }
+
+    // Worked seconds by bucket start.
+    private static Map<Long, Long> seconds(Map<TimesheetRollupService.EmployerBucket, long[]> buckets) {
+        Map<Long, Long> seconds = new TreeMap<>();
+        buckets.forEach((bucket, totals) -> seconds.put(bucket.start(), totals[0]));
+        return seconds;
+    }
+
+    private static void assertSegment(long[] segment, long bucket, long seconds) {
+        assertEquals(bucket, segment[0]);
+        assertEquals(seconds, segment[1]);
+    }
+
+    private static LocalDateTime time(int day, int hour, int minute) {
+        return LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(day - 1).withHour(hour).withMinute(minute);
+    }
+
+    private static long at(int day, int hour, int minute) {
+        return TimesheetRollupService.epochSecond(time(day, hour, minute));
+    }
+}
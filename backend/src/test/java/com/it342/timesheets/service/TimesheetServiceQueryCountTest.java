@@ -0,0 +1,91 @@
+package com.it342.timesheets.service;
+
+import com.it342.timesheets.dto.TimesheetDashboardResponse;
+import com.it342.timesheets.entity.Employee;
+import com.it342.timesheets.entity.TimesheetRecord;
+import com.it342.timesheets.entity.User;
+import com.it342.timesheets.entity.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class TimesheetServiceQueryCountTest {
+
+    @Autowired
+    private TimesheetService timesheetService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void employerDashboardQueryCountDoesNotGrowWithRecords() {
+        long oneRecord = dashboardQueryCount(createEmployerWithRecords(1));
+        long manyRecords = dashboardQueryCount(createEmployerWithRecords(40));
+        assertEquals(oneRecord, manyRecords);
+    }
+
+    private long dashboardQueryCount(Integer employerId) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TimesheetDashboardResponse dashboard = timesheetService.getDashboard(employerId, null, 100);
+        dashboard.getRecords().forEach(record -> {
+            record.getEmployeeName();
+            record.getEmployerName();
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Integer createEmployerWithRecords(int recordCount) {
+        User employer = persistUser(UserRole.EMPLOYER, null);
+        for (int i = 0; i < recordCount; i++) {
+            User employeeUser = persistUser(UserRole.EMPLOYEE, employer);
+            Employee employee = new Employee();
+            employee.setEmployeeName(employeeUser.getUsername());
+            employee.setCreatedByUser(employer);
+            entityManager.persist(employee);
+
+            TimesheetRecord record = new TimesheetRecord();
+            record.setEmployee(employee);
+            record.setCreatedByUser(employer);
+            record.setClockInAt(LocalDateTime.now().minusHours(9).minusMinutes(i));
+            record.setClockOutAt(LocalDateTime.now().minusHours(1));
+            record.setHoursWorked(new BigDecimal("8.00"));
+            record.setStatus("clocked_out");
+            entityManager.persist(record);
+        }
+        return employer.getUserId();
+    }
+
+    private User persistUser(UserRole role, User employer) {
+        String name = "qc" + UUID.randomUUID().toString().substring(0, 12);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(role);
+        user.setEmployer(employer);
+        entityManager.persist(user);
+        return user;
+    }
+}